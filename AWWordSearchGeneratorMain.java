@@ -6,17 +6,50 @@ package wordsearchgenerator; // part of wordsearchgenerator package
 
 // import classes from Java library packages
 import java.awt.*; // contains Point class
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List; // import List interface
+import java.util.Locale;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.random.RandomGenerator;
 
 // begin AWWordSearchGeneratorMain class
 public class AWWordSearchGeneratorMain {
     // begin main method
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
+        // headless batch generation from a manifest file
+        if (args.length > 0 && args[0].equals("batch")) {
+            BatchGenerator.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        } // end if
+        // one very large puzzle written to mapped files
+        if (args.length > 0 && args[0].equals("poster")) {
+            PosterGenerator.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        } // end if
+        // long-running HTTP server for generate and solve requests
+        if (args.length > 0 && args[0].equals("server")) {
+            GenerationServer.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        } // end if
+        // print puzzles stored in a binary archive
+        if (args.length > 0 && args[0].equals("archive")) {
+            PuzzleArchive.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        } // end if
+        // locate words in a grid read from a file
+        if (args.length > 0 && args[0].equals("solve")) {
+            PuzzleSolver.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        } // end if
         // create WordSearchGenerator object
         WordSearchGenerator wordSearch = new WordSearchGenerator();
         wordSearch.printMenu();
@@ -25,18 +58,74 @@ public class AWWordSearchGeneratorMain {
 
 // begin WordSearchGenerator class
 class WordSearchGenerator {
-    // set two private 2 dimensional arrays as null, to be
-    // created later
-    private char[][] wordSearchPuzzle;
-    private char[][] wordSearchSolution;
+    // grids of more cells than this are stored in tiles, see TiledCells
+    static final long DENSE_CELLS = 1L << 24;
+
+    // private grid set as null, to be created later - cells which
+    // belong to placed words are flagged in the grid, so the solution
+    // does not need a second copy
+    private Grid wordSearchPuzzle;
+    // cells of wordSearchPuzzle holding each letter, kept up to date by
+    // placeWord
+    private final LetterIndex letters = new LetterIndex();
+    // renders grid for the console, reusing its buffer between calls
+    private final PuzzleRenderer renderer =
+            new PuzzleRenderer(PuzzleRenderer.Format.TEXT);
     // private ArrayList field to store Strings from user input
     private ArrayList<String> words;
+    // private ArrayList field to store words which could not be placed
+    private ArrayList<String> failedWords;
+    // where every placed word was put, in the order of words
+    private List<Placement> placements;
     // private int to define word search dimensions
     private int dimensions;
+    // source of random directions, points and filler characters, never
+    // shared with another generator so instances may run on separate threads
+    private final RandomGenerator rand;
+    // order in which words are placed
+    private final WordOrder wordOrder;
+    // weight of every direction a word may be read in
+    private final DirectionWeights directions;
+    // fills empty cells without spelling words of the list
+    private final GridFiller filler;
+    // whether tiles of large grids are kept outside the Java heap
+    private boolean offHeap;
+    // receives placement and timing events, NONE unless set
+    private GenerationMetrics metrics = GenerationMetrics.NONE;
+    // paths checked and paths found blocked for the current puzzle
+    private long pathChecks;
+    private long pathRejections;
 
     // begin constructor
     public WordSearchGenerator() {
+        this(new Random());
+    } // end constructor
+
+    // constructor - all random choices are drawn from rand, so a seeded
+    // generator produces a repeatable puzzle
+    public WordSearchGenerator(RandomGenerator rand) {
+        this(rand, WordOrder.LENGTH_DESCENDING);
+    } // end constructor
+
+    // constructor - words are placed in the order given by wordOrder
+    public WordSearchGenerator(RandomGenerator rand, WordOrder wordOrder) {
+        this(rand, wordOrder, DirectionWeights.CLASSIC);
+    } // end constructor
+
+    // constructor - the direction of every word is drawn from directions
+    public WordSearchGenerator(RandomGenerator rand, WordOrder wordOrder,
+                               DirectionWeights directions) {
+        this(rand, wordOrder, directions, GridFiller.DEFAULT);
+    } // end constructor
+
+    // constructor - empty cells are filled by filler
+    public WordSearchGenerator(RandomGenerator rand, WordOrder wordOrder,
+                               DirectionWeights directions, GridFiller filler) {
         this.dimensions = Size.MEDIUM.getSize();
+        this.rand = rand;
+        this.wordOrder = wordOrder;
+        this.directions = directions;
+        this.filler = filler;
     } // end constructor
 
     // post: instructions have been printed to console
@@ -56,255 +145,367 @@ class WordSearchGenerator {
     // two word searches have been generated, one with random letters
     // and one showing solution to puzzle
     public void generate(Scanner console) {
-        Random rand = new Random(); // create Random object
-        boolean clear; // used to test clear path for words in puzzle
-
-        // create word list from user input and store length of longest
-        // word in list
-        int max = createWordList(console);
+        // create word list from user input
+        createWordList(console);
         System.out.println();
 
-        // add max word length value to W x H of 2D array
-        dimensions = Size.MEDIUM.getSize() + max;
-        // create 2 dimensional array for word search
-        wordSearchPuzzle = new char[dimensions][dimensions];
+        generate(words, Size.MEDIUM);
+        // notify user of every word that could not be placed
+        for (String word : failedWords) {
+            notifyOfPlacementFailure(word, 100);
+        } // end for
+    } // end generate
+
+    // pre: wordList is not empty
+    // post: puzzle and solution have been generated from wordList without
+    // any console input or output, words which could not be placed have
+    // been recorded in failedWords
+    public void generate(List<String> wordList, Size size) {
+        generate(wordList, size, null);
+    } // end generate
+
+    // pre: wordList is not empty
+    // post: puzzle and solution have been generated as above, by
+    // backtracking search limited by budget unless budget is null
+    public void generate(List<String> wordList, Size size, SearchBudget budget) {
+        // add longest word length value to W x H of grid
+        generate(wordList, size.getSize()
+                + longestLength(wordList, filler.getLetters().getAlphabet()), budget);
+    } // end generate
+
+    // pre: wordList is not empty, dimensions >= length of longest word
+    // post: puzzle and solution of dimensions x dimensions have been
+    // generated from wordList - words are placed by the heuristic if
+    // budget is null, otherwise by backtracking search, which places every
+    // word unless the search space or budget runs out
+    public void generate(List<String> wordList, int dimensions, SearchBudget budget) {
+        // the clock is only read when someone is listening
+        long start = metrics == GenerationMetrics.NONE ? 0 : System.nanoTime();
+        layout(wordList, dimensions, budget);
+
+        // populate empty elements in word search grid with random
+        // characters, solution is read from word cells flagged in grid
+        fillEmptySpaces(wordSearchPuzzle);
+        if (metrics != GenerationMetrics.NONE) {
+            metrics.puzzleGenerated(System.nanoTime() - start, pathChecks,
+                    pathRejections, wordSearchPuzzle.size(),
+                    wordSearchPuzzle.countWordCells());
+        } // end if
+    } // end generate
 
-        // create MatchingPoint object, has fields for Point x, y coordinates
-        // of char match in 2 dimensional array, as well as index in String of
-        // matching char
-        MatchingPoint match;
+    // pre: wordList is not empty
+    // post: puzzle and solution have been generated from wordList as
+    // above on a grid of the shape of mask - words longer than any
+    // straight run of the shape are recorded as failed
+    public void generate(List<String> wordList, GridMask mask, SearchBudget budget) {
+        long start = metrics == GenerationMetrics.NONE ? 0 : System.nanoTime();
+        prepare(wordList, mask.getWidth(), mask);
+        layout(budget);
+        fillEmptySpaces(wordSearchPuzzle);
+        if (metrics != GenerationMetrics.NONE) {
+            metrics.puzzleGenerated(System.nanoTime() - start, pathChecks,
+                    pathRejections, mask.getCells(), wordSearchPuzzle.countWordCells());
+        } // end if
+    } // end generate
 
-        // random selection of word orientation
-        // 0 = vertical, 1 = diagonal, 2/default = horizontal
-        int orientation = rand.nextInt(3);
+    // pre: wordList is not empty, dimensions >= length of longest word
+    // post: words have been placed as by generate, but empty cells have
+    // been left empty
+    void layout(List<String> wordList, int dimensions, SearchBudget budget) {
+        prepare(wordList, dimensions, null);
+        layout(budget);
+    } // end layout
+
+    // pre: prepare has been called
+    // post: words have been placed on the prepared grid, by backtracking
+    // search limited by budget unless budget is null
+    private void layout(SearchBudget budget) {
+        if (budget == null) {
+            placeWords();
+        } else {
+            BacktrackingSearch search = new BacktrackingSearch(wordSearchPuzzle,
+                    letters, rand, directions, budget);
+            failedWords.addAll(search.place(words));
+            placements = search.getPlacements();
+            pathChecks += search.getPathChecks();
+            pathRejections += search.getPathRejections();
+            if (metrics != GenerationMetrics.NONE) {
+                search.report(metrics);
+            } // end if
+        } // end if/else
+    } // end layout
+
+    // post: words have been placed by crossing words already in the grid
+    // or at random points, words which could not be placed have been
+    // recorded in failedWords - once the thread is interrupted, as when a
+    // CompactSearch or BestOfSearch attempt is cancelled, the words left
+    // are recorded as failed without being tried
+    private void placeWords() {
+        boolean clear; // used to test clear path for words in puzzle
 
-        // create point at origin
-        Point p = new Point(0, 0);
-        // place first word in upper left corner of puzzle
-        placeWord(words.get(0), p, 0, orientation);
+        // random selection of word direction, weighted by directions - a
+        // word read backwards is placed in a reverse direction
+        Direction direction = directions.pick(rand);
+
+        // place first word in upper left corner of puzzle, or as near to
+        // it as its direction allows - a shaped grid may have a hole there,
+        // and then the first word is placed like any other
+        String first = words.get(0);
+        Point p = new Point(direction.firstX(first.length()),
+                direction.firstY(first.length()));
+        int next = 0;
+        if (wordSearchPuzzle.getMask() == null || checkPath(first, p, 0, direction)) {
+            placeWord(first, p, 0, direction);
+            next = 1;
+        } // end if
 
         // for every subsequent word in words list after first word
-        for (int j = 1; j < words.size(); j++) {
-            // select next orientation randomly
-            orientation = rand.nextInt(3);
-            // find first point where char from current word matches
-            // char in 2 dimensional grid and return MatchingPoint object
-            match = findFirstMatchingPoint(words.get(j));
+        for (int j = next; j < words.size(); j++) {
+            if (Thread.currentThread().isInterrupted()) {
+                for (String skipped : words.subList(j, words.size())) {
+                    failedWords.add(skipped);
+                    metrics.wordFailed(skipped, 0);
+                } // end for
+                break;
+            } // end if
+
+            // select next direction randomly
+            direction = directions.pick(rand);
 
             // current word being inspected
-            String currWord;
-            // reverse every third word before placing
-            // in word search
-            if (j % 3 == 0) {
-                // current word being inspected
-                currWord = reverse(words.get(j));
-            } else {
-                currWord = words.get(j);
-            } // end if/else
-            // Point where a char in current word matches char in 2 dimensional
-            // array, Point x and y = -1 if no match found
-            p = match.getPoint();
-            // index of char in word which matches char in 2D array, -1 if no
-            // match found
-            int index = match.getIndex();
-            // true if path for word in 2 dimensional array is clear
-            clear = checkPath(currWord, p, index, orientation);
-
-            // if match index does not = -1 (no match found) and path is clear
-            if (match.getIndex() != -1 && clear) {
-                // place word in 2 dimensional array
-                placeWord(currWord, p, index, orientation);
-            // if no match found or path is not clear
-            } else {
+            String currWord = words.get(j);
+
+            // try to cross a word already in the grid at any cell holding
+            // a matching char
+            clear = placeAtIntersection(currWord, direction);
+
+            // if no match found or no intersection had a clear path
+            if (!clear) {
                 // will attempt to place word randomly in 2 dimensional array
-                // 100 times, informing user if word could not be placed
+                // 100 times, recording word if it could not be placed
                 for (int i = 0; i <= 100; i++) {
-                    // get new random word orientation
-                    orientation = rand.nextInt(3);
+                    // get new random word direction
+                    direction = directions.pick(rand);
                     // get random point in 2 dimensional array
-                    p = getPoint(currWord, orientation);
+                    p = getPoint(currWord, direction);
                     // check if path for word is clear, and place if so
-                    if (checkPath(currWord, p, 0, orientation)) {
-                        placeWord(currWord, p, 0, orientation);
+                    if (checkPath(currWord, p, 0, direction)) {
+                        placeWord(currWord, p, 0, direction);
+                        metrics.wordPlaced(false, i + 1);
                         break; // break out of for loop after word placed
                     } // end if
                     if (i == 100) {
-                        // notify user that word could not be placed after
-                        // 100 attempts
-                        notifyOfPlacementFailure(currWord, 100);
+                        // word could not be placed after 100 attempts
+                        failedWords.add(currWord);
+                        metrics.wordFailed(currWord, i + 1);
                     } // end if
                 } // end for
+            } else {
+                metrics.wordPlaced(true, 0);
             } // end if/else
         } // end for
+    } // end placeWords
 
-        // create new 2 dimensional array which will show solution
-        wordSearchSolution = new char[wordSearchPuzzle.length][dimensions];
-        // copy contents of puzzle array to solution array
-        for (int i = 0; i < wordSearchPuzzle.length; i++) {
-            for (int j = 0; j < wordSearchPuzzle.length; j++) {
-                wordSearchSolution[i] = wordSearchPuzzle[i].clone();
-            } // end horizontal for
-        } // end vertical for
-
-        // populate empty elements in word search array with random
-        // characters
-        fillEmptySpaces(wordSearchPuzzle);
-        // populate empty elements in solution key with X
-        fillEmptySpaces(wordSearchSolution, '_');
-    } // end generate
+    // post: length of longest word normalized by alphabet, as it is
+    // placed, has been returned, 0 if wordList is empty
+    public static int longestLength(List<String> wordList, Alphabet alphabet) {
+        int max = 0;
+        for (String word : wordList) {
+            max = Math.max(max, alphabet.normalize(word).length());
+        } // end for
+        return max;
+    } // end longestLength
+
+    // pre: wordList is not empty, dimensions >= length of longest word
+    // unless mask is not null
+    // post: words has been set to wordList normalized by the alphabet of
+    // the filler and sorted by wordOrder, and an empty grid of dimensions x
+    // dimensions, or of the shape of mask if it is not null, has been
+    // created, coding the letters of that alphabet
+    private void prepare(List<String> wordList, int dimensions, GridMask mask) {
+        if (wordList.isEmpty()) {
+            throw new IllegalArgumentException("word list must not be empty");
+        } // end if
+
+        // copy word list in upper case and sort in placement order - words
+        // are sorted alphabetically first, so the order the list was given
+        // in does not change a seeded puzzle
+        Alphabet alphabet = filler.getLetters().getAlphabet();
+        words = new ArrayList<>(wordList.size());
+        for (String word : wordList) {
+            words.add(alphabet.normalize(word));
+        } // end for
+        Collections.sort(words);
+        wordOrder.sort(words);
+        failedWords = new ArrayList<>();
+        placements = new ArrayList<>();
+        pathChecks = 0;
+        pathRejections = 0;
+
+        if (mask != null) {
+            this.dimensions = dimensions;
+            wordSearchPuzzle = new Grid(mask, alphabet);
+            letters.clear();
+            return;
+        } // end if
+        if (dimensions < longestLength(words, alphabet)) {
+            throw new IllegalArgumentException("grid of " + dimensions
+                    + " is too small for a word of " + longestLength(words, alphabet)
+                    + " letters");
+        } // end if
+        this.dimensions = dimensions;
+        // create flat grid for word search, tiled if it is large
+        wordSearchPuzzle = (long) dimensions * dimensions > DENSE_CELLS
+                ? Grid.tiled(dimensions, dimensions, offHeap, alphabet)
+                : new Grid(dimensions, dimensions, alphabet);
+        letters.clear();
+    } // end prepare
+
+    // post: tiles of grids larger than DENSE_CELLS created from now on
+    // are kept outside the Java heap if offHeap is true
+    void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    } // end setOffHeap
+
+    // post: placement and timing of puzzles generated from now on are
+    // reported to metrics
+    void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    } // end setMetrics
 
     // post: puzzle has been printed to output file
     public void print() {
-        for (char[] arr: wordSearchPuzzle) {
-            for (char c : arr) {
-                System.out.printf(" %c ", c);
-            } // end inner for
-            System.out.println();
-        } // end outer for
+        // render whole grid and print in one call
+        System.out.print(renderer.renderGrid(wordSearchPuzzle, false));
     } // end print
 
     // post: puzzle has been printed to output file
     public void print(char[][] wordSearch, PrintStream output) {
+        StringBuilder sb = new StringBuilder();
         for (char[] arr: wordSearch) {
             for (char c : arr) {
-                output.printf(" %c ", c);
+                sb.append(' ').append(c).append(' ');
             } // end inner for
-            output.println();
+            sb.append(System.lineSeparator());
         } // end outer for
+        output.print(sb);
+        output.flush();
     } // end print
 
     // post: word search with random characters represented
-    // as 'X' has been printed
+    // as '_' has been printed
     public void showSolution() {
-        for (char[] arr: wordSearchSolution) {
-            for (char c : arr) {
-                System.out.printf(" %c ", c);
-            } // end inner for
-            System.out.println();
-        } // end outer for
+        System.out.print(renderer.renderGrid(wordSearchPuzzle, true));
     } // end showSolution
 
-    // pre: 0 <= direction <= 2
     // post: placement path for String word has been checked for
     // obstruction and boolean has been returned indicating state
-    // of path
-    public boolean checkPath(String word, Point p, int index, int direction) {
-        switch (direction) {
-            case 0: // vertical
-                // traverse over word path vertically, checking if every index except
-                // character intersection index is clear
-                for (int i = 0; i < word.length(); i++) {
-                    if (i == index) {
-                        continue;
-                    }
-                    // if potential word placement would be out of array bounds or if
-                    // path for word is not clear of other characters or if first char
-                    // in String is not placed at empty index or index of matching char
-                    if (p.y + (word.length() - index) > dimensions || p.y - index < 0
-                            || wordSearchPuzzle[p.y - index + i][p.x] != 0
-                            || (wordSearchPuzzle[p.y - index][p.x] != word.charAt(index)
-                            && wordSearchPuzzle[p.y - index][p.x] != 0)) {
-                        return false; // return and end method
-                    } // end if
-                } // end for
-                break;
-
-            case 1: // diagonal
-                // traverse over word path diagonally, checking if every index except
-                // character intersection index is clear
-                for (int i = 0; i < word.length(); i++) {
-                    if (i == index) {
-                        continue;
-                    }
-                    // if potential word placement would be out of array bounds or if
-                    // path for word is not clear of other characters or if first char
-                    // in String is not placed at empty index or index of matching char
-                    if (p.y + (word.length() - index) > dimensions || p.y - index < 0
-                            || p.x + (word.length() - index) > dimensions || p.x - index < 0
-                            || wordSearchPuzzle[p.y - index + i][p.x - index + i] != 0
-                            || (wordSearchPuzzle[p.y - index][p.x - index] != word.charAt(index)
-                            && wordSearchPuzzle[p.y - index][p.x - index] != 0)) {
-                        return false; // return and end method
-                    } // end if
-                } // end for
-                break;
+    // of path - every cell on the path must be empty, except the cell of
+    // the char at index which may already hold that char
+    public boolean checkPath(String word, Point p, int index, Direction direction) {
+        return checkPath(word, p.x, p.y, index, direction);
+    } // end checkPath
 
-            // only int 0-2 should ever be passed in
-            default: // horizontal
-                // traverse over word path horizontally, checking if every index except
-                // character intersection index is clear
-                for (int i = 0; i < word.length(); i++) {
-                    if (i == index) {
-                        continue;
-                    }
-                    // if potential word placement would be out of array bounds or if
-                    // path for word is not clear of other characters or if first char
-                    // in String is not placed at empty index or index of matching char
-                    if (p.x + (word.length() - index) > dimensions || p.x - index < 0
-                        || wordSearchPuzzle[p.y][p.x - index + i] != 0
-                        || (wordSearchPuzzle[p.y][p.x - index] != word.charAt(index)
-                            && wordSearchPuzzle[p.y][p.x - index] != 0)) {
-                        return false; // return and end method
-                    } // end if
-                } // end for
-                break;
-        } // end switch
+    // post: path for word with char at index placed at column x, row y
+    // has been checked as above
+    private boolean checkPath(String word, int x, int y, int index,
+                              Direction direction) {
+        // counted whether or not metrics are set, a field increment being
+        // cheaper than the test
+        pathChecks++;
+        // first cell of word path
+        int startX = x - index * direction.getDx();
+        int startY = y - index * direction.getDy();
+        // if potential word placement would be out of grid bounds
+        // a table lookup for shaped grids, so holes cost nothing here
+        if (!wordSearchPuzzle.fits(startX, startY, word.length(), direction)) {
+            pathRejections++;
+            return false;
+        } // end if
+
+        // traverse over word path, moving step cells through the flat grid
+        // for every char
+        int step = direction.step(wordSearchPuzzle.getWidth());
+        int cell = wordSearchPuzzle.index(startX, startY);
+        for (int i = 0; i < word.length(); i++, cell += step) {
+            char c = wordSearchPuzzle.get(cell);
+            if (c != Grid.EMPTY && (i != index || c != word.charAt(i))) {
+                pathRejections++;
+                return false; // return and end method
+            } // end if
+        } // end for
         return true; // returns true if path is clear
     } // end checkPath
 
-    // pre: 0 <= orientation <= 2
-    // post: word has been placed in clear spaces in 2D array
-    public void placeWord(String word, Point p, int index, int orientation) {
-        switch (orientation) {
-            case 0: // vertical
-                for (int i = 0; i < word.length(); i++) {
-                    wordSearchPuzzle[p.y - index + i][p.x] = word.charAt(i);
-                } // end for
-                break;
-
-            case 1: // diagonal
-                for (int i = 0; i < word.length(); i++) {
-                    wordSearchPuzzle[p.y - index + i][p.x - index + i]
-                            = word.charAt(i);
-                } // end for
-                break;
-
-            // only int 0-2 should ever be passed in
-            default: // horizontal
-                for (int i = 0; i < word.length(); i++) {
-                    wordSearchPuzzle[p.y][p.x - index + i] = word.charAt(i);
-                } // end for
-                break;
-        } // end switch
+    // pre: path has been checked with checkPath
+    // post: word has been placed in clear spaces in grid, its cells
+    // flagged as part of the solution and added to the letter index
+    public void placeWord(String word, Point p, int index, Direction direction) {
+        placeWord(word, p.x, p.y, index, direction);
     } // end placeWord
 
-    // pre: 0 <= orientation <= 2
-    // point with x and y values within constraints determined by word
-    // orientation has been returned
-    public Point getPoint(String word, int orientation) {
-        Random rand = new Random(); // create new Random object
-        Point p = new Point(); // create new Point object
-        switch (orientation) {
-            case 0: // vertical
-                p.x = rand.nextInt(dimensions);
-                // limit y value range
-                p.y = rand.nextInt(dimensions - word.length());
-                break;
-
-            case 1: // diagonal
-                // limit both x and y value ranges
-                p.x = rand.nextInt(dimensions - word.length());
-                p.y = rand.nextInt(dimensions - word.length());
-                break;
+    // pre: path has been checked with checkPath
+    // post: word has been placed with char at index at column x, row y
+    private void placeWord(String word, int x, int y, int index, Direction direction) {
+        int step = direction.step(wordSearchPuzzle.getWidth());
+        int startX = x - index * direction.getDx();
+        int startY = y - index * direction.getDy();
+        placements.add(new Placement(word, startX, startY, direction));
+        int cell = wordSearchPuzzle.index(startX, startY);
+        for (int i = 0; i < word.length(); i++, cell += step) {
+            char c = word.charAt(i);
+            // intersection cells already hold c and are already indexed
+            if (wordSearchPuzzle.get(cell) == Grid.EMPTY) {
+                letters.add(c, cell);
+            } // end if
+            wordSearchPuzzle.setWordChar(cell, c);
+        } // end for
+    } // end placeWord
 
-            // only int 0-2 should ever be passed in
-            default: // horizontal
-                // limit x value range
-                p.x = rand.nextInt(dimensions - word.length());
-                p.y = rand.nextInt(dimensions);
-                break;
-        } // end switch
-        return p;
+    // post: every cell holding a char of word has been tried as an
+    // intersection, first in direction and then in every other enabled
+    // direction, and word has been placed at the first clear path - method
+    // has returned false if no intersection had a clear path
+    public boolean placeAtIntersection(String word, Direction direction) {
+        int width = wordSearchPuzzle.getWidth();
+        Direction[] enabled = directions.enabled();
+        // k = -1 tries the requested direction before the others
+        for (int k = -1; k < enabled.length; k++) {
+            Direction d = k < 0 ? direction : enabled[k];
+            if (k >= 0 && d == direction) {
+                continue; // already tried
+            } // end if
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                // visit only cells which hold the char at index i
+                for (int m = 0; m < letters.count(c); m++) {
+                    int cell = letters.get(c, m);
+                    int x = cell % width;
+                    int y = cell / width;
+                    if (checkPath(word, x, y, i, d)) {
+                        placeWord(word, x, y, i, d);
+                        return true;
+                    } // end if
+                } // end candidate for
+            } // end String traversal loop
+        } // end direction for
+        return false;
+    } // end placeAtIntersection
+
+    // pre: word fits inside the grid
+    // post: point from which word read in direction stays inside the grid
+    // has been drawn at random and returned - for a shaped grid, any cell
+    // of the shape, from which word need not fit
+    public Point getPoint(String word, Direction direction) {
+        GridMask mask = wordSearchPuzzle.getMask();
+        if (mask != null) {
+            int cell = mask.cell(rand.nextInt(mask.getCells()));
+            return new Point(cell % mask.getWidth(), cell / mask.getWidth());
+        } // end if
+        int length = word.length();
+        return new Point(
+                direction.firstX(length) + rand.nextInt(direction.spanX(length, dimensions)),
+                direction.firstY(length) + rand.nextInt(direction.spanY(length, dimensions)));
     } // end getPoint
 
     // post: MatchingPoint object which stores Point x, y coordinates
@@ -313,15 +514,22 @@ class WordSearchGenerator {
     // returned - if no match found, all MatchingPoint field values
     // = -1
     public MatchingPoint findFirstMatchingPoint(String word) {
+        int width = wordSearchPuzzle.getWidth();
         for (int i = 0; i < word.length(); i++) {
-            for (int y = 0; y < wordSearchPuzzle.length; y++) {
-                for (int x = 0; x < wordSearchPuzzle[y].length; x++) {
-                    if (wordSearchPuzzle[y][x] == word.charAt(i)) {
-                        Point p = new Point(x, y);
-                        return new MatchingPoint(i, p);
-                    }
-                } // end horizontal for
-            } // end vertical for
+            char c = word.charAt(i);
+            // cells are indexed in placement order, so pick the one nearest
+            // the top left
+            int first = -1;
+            for (int m = 0; m < letters.count(c); m++) {
+                int cell = letters.get(c, m);
+                if (first == -1 || cell < first) {
+                    first = cell;
+                } // end if
+            } // end candidate for
+            if (first != -1) {
+                Point p = new Point(first % width, first / width);
+                return new MatchingPoint(i, p);
+            } // end if
         } // end String traversal loop
         // if no matching char is found, returns -1 for all fields
         return new MatchingPoint(-1, new Point(-1, -1));
@@ -355,7 +563,7 @@ class WordSearchGenerator {
         // handle user input of each word
         for (int i = 0; i < numWords; i++) {
             System.out.printf("Please enter word number %d: ", i + 1);
-            String newWord = console.next().toUpperCase();
+            String newWord = console.next().toUpperCase(Locale.ROOT);
             // add word from user input to ArrayList, upper case
             words.add(newWord);
         } // end for
@@ -372,48 +580,16 @@ class WordSearchGenerator {
         return max; // return length of longest word in list
     } // end createWordList method
 
-    // post: Strings in array have been sorted by length using bubble
-    // sort algorithm
+    // post: Strings in array have been sorted in descending order of
+    // length, Strings of equal length keep their order
     public void sort(List<String> words) {
-        // pass over entire String ArrayList
-        for (int i = 0; i < words.size(); i++) {
-            // compare length of adjacent Strings
-            for (int j = 0; j < words.size() - 1; j++) {
-                if (words.get(j).length() < words.get(j + 1).length()) {
-                    String temp = words.get(j); // store String temporarily
-                    words.set(j, words.get(j + 1)); // switch Strings
-                    words.set(j + 1, temp);
-                } // end if
-            } // end inner for
-        } // end outer for
+        WordOrder.LENGTH_DESCENDING.sort(words);
     } // end sort
 
-    // post: empty spaces in 2 dimensional array reference parameter
-    // have been filled in with character parameter
-    public void fillEmptySpaces(char[][] arr, char c) {
-        for (int i = 0; i < arr.length; i++) {
-            for (int j = 0; j < arr[i].length; j++) {
-                if (arr[i][j] == 0) {
-                    arr[i][j] = c;
-                } // end if
-            } // end inner for
-        } // end outer for
-    } // end fillEmptySpaces
-
-    // post: empty spaces in 2 dimensional array reference parameter
-    // have been filled in with random characters
-    public void fillEmptySpaces(char[][] arr) {
-        Random rand = new Random(); // create new Random object
-
-        for (int i = 0; i < arr.length; i++) {
-            for (int j = 0; j < arr[i].length; j++) {
-                if (arr[i][j] == 0) {
-                    // random int in range of uppercase characters,
-                    // cast to char
-                    arr[i][j] = (char) (rand.nextInt(25) + 65);
-                } // end if
-            } // end inner for
-        } // end outer for
+    // post: empty spaces in grid have been filled in with random
+    // characters, chosen so no word of the list is spelled a second time
+    public void fillEmptySpaces(Grid grid) {
+        filler.fill(grid, words, rand);
     } // end fillEmptySpaces
 
     // post: String has been reversed and returned
@@ -429,14 +605,7 @@ class WordSearchGenerator {
     // post: method has returned true if word search puzzle
     // is empty
     public boolean isEmpty() {
-        for (char[] chars : wordSearchPuzzle) {
-            for (char aChar : chars) {
-                if (aChar != 0) {
-                    return false;
-                }
-            } // end inner for
-        } // end outer for
-        return true;
+        return wordSearchPuzzle.isEmpty();
     } // end isEmpty
 
     // post: user has been notified that their word was not successfully
@@ -457,7 +626,7 @@ class WordSearchGenerator {
     // post: menu has displayed program functions to the user, handled
     // user input related to their menu choice, and continued to be
     // displayed until user has selected to end the program
-    public void printMenu() throws FileNotFoundException {
+    public void printMenu() throws IOException {
         // true once a word search has been generated
         boolean generated = false;
         // create new Scanner object
@@ -498,9 +667,12 @@ class WordSearchGenerator {
 
                 case "f": // print to output file
                     if (generated) {
-                        PrintStream output =
-                                new PrintStream("wordsearchpuzzle.txt");
-                        print(wordSearchPuzzle, output);
+                        // file is flushed and closed once the grid is written
+                        try (Writer output = Files.newBufferedWriter(
+                                Path.of("wordsearchpuzzle.txt"),
+                                StandardCharsets.UTF_8)) {
+                            renderer.writeGrid(wordSearchPuzzle, false, output);
+                        } // end try
                         System.out.println("Your puzzle has been printed to " +
                                 "a file named\n\"wordsearchpuzzle.txt\"\n");
                     } else { // if word search has not yet been generated
@@ -516,13 +688,27 @@ class WordSearchGenerator {
         } while (!selection.equals("q"));
     } // end printMenu
 
-    // get methods for both word searches
+    // get methods for both word searches, copied out of grid
     public char[][] getWordSearchPuzzle() {
-        return wordSearchPuzzle;
+        return wordSearchPuzzle.toArray();
     } // end getWordSearchPuzzle
     public char[][] getWordSearchSolution() {
-        return wordSearchSolution;
+        return wordSearchPuzzle.toSolutionArray('_');
     } // end getWordSearchSolution
+    public Grid getGrid() {
+        return wordSearchPuzzle;
+    } // end getGrid
+
+    // get methods for word lists of last generated word search
+    public List<String> getWords() {
+        return words;
+    } // end getWords
+    public List<Placement> getPlacements() {
+        return placements;
+    } // end getPlacements
+    public List<String> getFailedWords() {
+        return failedWords;
+    } // end getFailedWords
 } // end WordSearchGenerator class
 
 // begin MatchingPoint class - store index in String and x,y
@@ -567,4 +753,4 @@ enum Size {
     public int getSize() {
         return size;
     } // end getSize
-} // end Size enum
\ No newline at end of file
+} // end Size enum
\ No newline at end of file
@@ -0,0 +1,212 @@
+// Word Search Generator
+// Alphabet - letters of a language and their compact codes
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// begin Alphabet class - the upper case letters of a language in order,
+// each with a code from 1 to size(), code 0 standing for Grid.EMPTY; a
+// grid stores one byte code per cell instead of a char, and an archive
+// packs them into as few bits as the alphabet needs
+//
+// every letter is a single precomposed char, as the rest of the program
+// places and matches words one char at a time: words are upper cased
+// with the rules of the alphabet's locale, composed, and letters outside
+// the alphabet which are a letter of it plus accents lose their accents,
+// so in Spanish an O with an acute accent is placed as O while N WITH
+// TILDE stays a letter of its own
+//
+// an alphabet is immutable and may be shared between threads
+public final class Alphabet {
+    // most letters an alphabet may hold, leaving codes of a byte for
+    // characters a grid holds outside its alphabet
+    public static final int MAX_LETTERS = 200;
+
+    // A to Z, for English and as the default
+    public static final Alphabet LATIN = new Alphabet("latin", Locale.ROOT,
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    // A to Z with N WITH TILDE after N
+    public static final Alphabet SPANISH = new Alphabet("spanish",
+            Locale.forLanguageTag("es"), "ABCDEFGHIJKLMN\u00D1OPQRSTUVWXYZ");
+    // A to Z followed by A, O and U WITH DIAERESIS; SHARP S upper cases
+    // to SS
+    public static final Alphabet GERMAN = new Alphabet("german", Locale.GERMAN,
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ\u00C4\u00D6\u00DC");
+    // ALPHA to OMEGA, skipping the unassigned code point where a capital
+    // final sigma would be; final sigma upper cases to SIGMA and accents
+    // are dropped, as in puzzles printed in Greek
+    public static final Alphabet GREEK = new Alphabet("greek",
+            Locale.forLanguageTag("el"), range('\u0391', '\u03A1') + range('\u03A3', '\u03A9'));
+    // Cyrillic A to YA with IO after IE, the 33 letters of Russian
+    public static final Alphabet RUSSIAN = new Alphabet("russian",
+            Locale.forLanguageTag("ru"),
+            range('\u0410', '\u0415') + '\u0401' + range('\u0416', '\u042F'));
+
+    private final String name;
+    private final Locale locale;
+    private final String letters;
+    // character of every code, symbols[0] being Grid.EMPTY - shared with
+    // grids, so never changed
+    private final char[] symbols;
+    // code of every letter by the high byte of its char, then the low
+    // byte; a page without letters is null and an unused slot 0
+    private final byte[][] pages = new byte[256][];
+
+    // pre: letters are distinct upper case chars, none of them whitespace,
+    // Grid.EMPTY or half of a surrogate pair
+    // begin constructor
+    public Alphabet(String name, Locale locale, String letters) {
+        if (letters.isEmpty() || letters.length() > MAX_LETTERS) {
+            throw new IllegalArgumentException("an alphabet holds 1 to "
+                    + MAX_LETTERS + " letters, not " + letters.length());
+        } // end if
+        this.name = name;
+        this.locale = locale;
+        this.letters = letters;
+        this.symbols = new char[letters.length() + 1];
+        symbols[0] = Grid.EMPTY;
+        for (int i = 0; i < letters.length(); i++) {
+            char c = letters.charAt(i);
+            if (c == Grid.EMPTY || Character.isWhitespace(c) || Character.isSurrogate(c)) {
+                throw new IllegalArgumentException("alphabet " + name
+                        + " holds a character which is not a letter: U+"
+                        + Integer.toHexString(c).toUpperCase(Locale.ROOT));
+            } // end if
+            if (code(c) != 0) {
+                throw new IllegalArgumentException("alphabet " + name
+                        + " holds " + c + " twice");
+            } // end if
+            byte[] page = pages[c >>> 8];
+            if (page == null) {
+                page = new byte[256];
+                pages[c >>> 8] = page;
+            } // end if
+            page[c & 0xFF] = (byte) (i + 1);
+            symbols[i + 1] = c;
+        } // end for
+    } // end constructor
+
+    // post: every char from first to last has been returned in order
+    private static String range(char first, char last) {
+        StringBuilder sb = new StringBuilder(last - first + 1);
+        for (char c = first; c <= last; c++) {
+            sb.append(c);
+        } // end for
+        return sb.toString();
+    } // end range
+
+    // post: alphabet of that name has been returned
+    public static Alphabet forName(String name) {
+        for (Alphabet alphabet : new Alphabet[] {LATIN, SPANISH, GERMAN, GREEK, RUSSIAN}) {
+            if (alphabet.name.equalsIgnoreCase(name)) {
+                return alphabet;
+            } // end if
+        } // end for
+        throw new IllegalArgumentException("unknown alphabet " + name);
+    } // end forName
+
+    // post: alphabet of exactly letters has been returned, one of the
+    // alphabets above if they match, so its locale is kept
+    public static Alphabet forLetters(String letters) {
+        for (Alphabet alphabet : new Alphabet[] {LATIN, SPANISH, GERMAN, GREEK, RUSSIAN}) {
+            if (alphabet.letters.equals(letters)) {
+                return alphabet;
+            } // end if
+        } // end for
+        return new Alphabet("custom", Locale.ROOT, letters);
+    } // end forLetters
+
+    // post: number of letters has been returned
+    public int size() {
+        return letters.length();
+    } // end size
+
+    // pre: 0 <= i < size()
+    // post: letter i, whose code is i + 1, has been returned
+    public char letterAt(int i) {
+        return letters.charAt(i);
+    } // end letterAt
+
+    // post: code of c from 1 to size() has been returned, 0 if c is not a
+    // letter of the alphabet
+    public int code(char c) {
+        byte[] page = pages[c >>> 8];
+        return page == null ? 0 : page[c & 0xFF] & 0xFF;
+    } // end code
+
+    // pre: 0 <= code <= size()
+    // post: letter of code has been returned, Grid.EMPTY for 0
+    public char letter(int code) {
+        return symbols[code];
+    } // end letter
+
+    // post: character of every code has been returned, indexed by code -
+    // the array is shared and must not be changed
+    char[] symbols() {
+        return symbols;
+    } // end symbols
+
+    // post: method has returned true if every char of word is a letter of
+    // the alphabet
+    public boolean contains(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (code(word.charAt(i)) == 0) {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end contains
+
+    // post: word has been returned upper cased in the alphabet's locale,
+    // composed, and with the accents of letters outside the alphabet
+    // dropped where that leaves a letter of it - characters which are
+    // still not letters of the alphabet are kept, see contains
+    public String normalize(String word) {
+        String upper = word.toUpperCase(locale);
+        if (contains(upper)) {
+            return upper; // the usual case, nothing to compose or fold
+        } // end if
+        upper = Normalizer.normalize(upper, Normalizer.Form.NFC);
+        StringBuilder folded = new StringBuilder(upper.length());
+        for (int i = 0; i < upper.length(); i++) {
+            folded.append(fold(upper.charAt(i)));
+        } // end for
+        return folded.toString();
+    } // end normalize
+
+    // post: c has been returned without its accents if it is not a letter
+    // of the alphabet but its base letter is, otherwise c itself
+    private char fold(char c) {
+        if (c < 0x80 || code(c) != 0 || Character.isSurrogate(c)) {
+            return c;
+        } // end if
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        if (decomposed.length() < 2 || code(decomposed.charAt(0)) == 0) {
+            return c;
+        } // end if
+        for (int i = 1; i < decomposed.length(); i++) {
+            if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK) {
+                return c;
+            } // end if
+        } // end for
+        return decomposed.charAt(0);
+    } // end fold
+
+    // get methods
+    public String getName() {
+        return name;
+    } // end getName
+    public Locale getLocale() {
+        return locale;
+    } // end getLocale
+    public String getLetters() {
+        return letters;
+    } // end getLetters
+
+    // toString method
+    public String toString() {
+        return name;
+    } // end toString
+} // end Alphabet class
@@ -0,0 +1,658 @@
+// Word Search Generator
+// BacktrackingSearch - exhaustive constraint-based word placement
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+// begin BacktrackingSearch class - places every word in a grid by depth
+// first search, undoing placements which leave another word with
+// nowhere to go
+//
+// at every step the remaining word with the fewest clear placements is
+// placed next (most constrained word first), and a word with no clear
+// placement ends the branch at once; placements crossing letters already
+// in the grid, found through the letter index, are tried before the
+// rest. When the budget runs out the deepest layout reached is kept.
+//
+// the clear placements of every word are counted once, then kept up to
+// date: a placement can only block placements through the cells it
+// filled, so a step costs about the length of the words rather than a
+// scan of the whole grid per word. Only blocked placements are stored, so
+// memory grows with the layout rather than with words times cells. The
+// clock is read inside every scan, and by the placement of the words left
+// once the search ends, so nothing runs far past the time budget.
+final class BacktrackingSearch {
+    // values() clones its array on every call
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // calls to outOfTime between readings of the clock, less one
+    private static final int CLOCK_MASK = 0xFF;
+    // slots of the blocked table when a search starts, a power of two
+    private static final int BLOCKED_SLOTS = 1024;
+    // slot of the blocked table holding no placement
+    private static final long FREE = -1;
+
+    private final Grid grid;
+    private final LetterIndex letters;
+    private final RandomGenerator rand;
+    // directions a word may be placed in - the search tries every one of
+    // positive weight, the size of the weight only matters to the heuristic
+    private final Direction[] directions;
+    private final long maxSteps;
+    private final long deadline;
+
+    private String[] words;
+    private boolean[] palindromes;
+    private boolean[] placed;
+    // whether the placement of each placed word crosses another word
+    private boolean[] crossed;
+    // clear placements of every unplaced word in the current layout
+    private int[] counts;
+    // placements of words no longer clear, numbered by word, start cell
+    // and enabled direction, in a table of linear probing at most half
+    // full; on the empty grid every placement inside the shape is clear,
+    // so the table starts empty
+    private long[] blocked;
+    // placements in blocked, in the order added, so a placement can be
+    // undone - they are only ever removed last added first, so the slot of
+    // one removed lies on the probe path of no other and is simply freed
+    private long[] trail = new long[BLOCKED_SLOTS];
+    private int trailSize;
+    private long ticks;
+    // set once the time budget has run out or the thread was interrupted
+    private boolean timedOut;
+    // placement of each placed word, encoded by encode
+    private long[] codes;
+    private int placedCount;
+    private long steps;
+    private boolean exhausted;
+    // paths read by fits and those found blocked, as the heuristic counts
+    // them for GenerationMetrics
+    private long pathChecks;
+    private long pathRejections;
+
+    // cells written by placements on the current branch, so a placement
+    // can be undone without touching intersection cells it only crossed
+    private int[] written = new int[64];
+    private int writtenSize;
+
+    // deepest layout reached so far
+    private Grid bestGrid;
+    private boolean[] bestPlaced;
+    private boolean[] bestCrossed;
+    private long[] bestCodes;
+    private int bestCount = -1;
+
+    // pre: grid and letters are empty and belong together
+    // begin constructor
+    BacktrackingSearch(Grid grid, LetterIndex letters, RandomGenerator rand,
+                       DirectionWeights directions, SearchBudget budget) {
+        this.grid = grid;
+        this.letters = letters;
+        this.rand = rand;
+        this.directions = directions.enabled();
+        this.maxSteps = budget.getMaxSteps();
+        this.deadline = System.nanoTime() + budget.getTimeoutMillis() * 1_000_000;
+    } // end constructor
+
+    // pre: every word fits inside the grid
+    // post: words have been placed in the grid, or the best partial layout
+    // has been placed if the search space or budget ran out - words which
+    // could not be placed have been returned
+    public List<String> place(List<String> wordList) {
+        words = wordList.toArray(new String[0]);
+        palindromes = new boolean[words.length];
+        placed = new boolean[words.length];
+        crossed = new boolean[words.length];
+        codes = new long[words.length];
+        counts = new int[words.length];
+        blocked = new long[BLOCKED_SLOTS];
+        Arrays.fill(blocked, FREE);
+        trailSize = 0;
+        placedCount = 0;
+        steps = 0;
+        exhausted = false;
+        timedOut = false;
+        pathChecks = 0;
+        pathRejections = 0;
+        recordBest();
+        // on the empty grid every placement inside the shape is clear, so
+        // words of one length share a count
+        Map<Integer, Integer> byLength = new HashMap<>();
+        for (int w = 0; w < words.length; w++) {
+            palindromes[w] = isPalindrome(words[w]);
+            int key = words[w].length() * 2 + (palindromes[w] ? 1 : 0);
+            Integer count = byLength.get(key);
+            if (count == null) {
+                count = countPlacements(w);
+                byLength.put(key, count);
+            } // end if
+            counts[w] = count;
+        } // end for
+
+        if (exhausted || !search()) {
+            // restore deepest layout and rebuild letter index from it
+            grid.copyFrom(bestGrid);
+            placed = bestPlaced;
+            crossed = bestCrossed;
+            codes = bestCodes;
+            letters.clear();
+            for (int cell = 0; cell < grid.size(); cell++) {
+                if (grid.get(cell) != Grid.EMPTY) {
+                    letters.add(grid.get(cell), cell);
+                } // end if
+            } // end for
+            // the branch ended at a word with nowhere to go, skip it and
+            // place any remaining word which still fits, while time is left
+            for (int i = 0; i < words.length; i++) {
+                if (!placed[i]) {
+                    long code = anyPlacement(i);
+                    if (code >= 0) {
+                        crossed[i] = apply(words[i], code);
+                        placed[i] = true;
+                        codes[i] = code;
+                    } // end if
+                } // end if
+            } // end for
+        } // end if
+
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            if (!placed[i]) {
+                failed.add(words[i]);
+            } // end if
+        } // end for
+        return failed;
+    } // end place
+
+    // post: method has returned true if the search stopped early because
+    // the step or time budget was used up
+    public boolean isExhausted() {
+        return exhausted;
+    } // end isExhausted
+
+    // post: number of placements tried has been returned
+    public long getSteps() {
+        return steps;
+    } // end getSteps
+
+    // post: number of paths read to see whether a word fits has been
+    // returned
+    public long getPathChecks() {
+        return pathChecks;
+    } // end getPathChecks
+
+    // post: number of paths read which a word did not fit has been
+    // returned
+    public long getPathRejections() {
+        return pathRejections;
+    } // end getPathRejections
+
+    // pre: place has been called
+    // post: every word has been reported to metrics, placed as crossing
+    // another word or as drawn in one attempt, or failed without random
+    // attempts
+    public void report(GenerationMetrics metrics) {
+        for (int i = 0; i < words.length; i++) {
+            if (placed[i]) {
+                metrics.wordPlaced(crossed[i], crossed[i] ? 0 : 1);
+            } else {
+                metrics.wordFailed(words[i], 0);
+            } // end if/else
+        } // end for
+    } // end report
+
+    // pre: place has been called
+    // post: placement of every word placed has been returned, in the
+    // order of the word list
+    public List<Placement> getPlacements() {
+        List<Placement> placements = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            if (placed[i]) {
+                int cell = (int) (codes[i] >>> 3);
+                placements.add(new Placement(words[i], cell % grid.getWidth(),
+                        cell / grid.getWidth(), DIRECTIONS[(int) (codes[i] & 7)]));
+            } // end if
+        } // end for
+        return placements;
+    } // end getPlacements
+
+    // post: method has returned true if all remaining words were placed
+    // below the current layout
+    private boolean search() {
+        if (placedCount == words.length) {
+            return true;
+        } // end if
+
+        // choose remaining word with fewest clear placements, a count of 0
+        // means this branch can never succeed
+        int choice = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int w = 0; w < words.length; w++) {
+            if (!placed[w]) {
+                if (counts[w] == 0) {
+                    return false;
+                } // end if
+                if (counts[w] < fewest) {
+                    fewest = counts[w];
+                    choice = w;
+                } // end if
+            } // end if
+        } // end for
+
+        String word = words[choice];
+        for (long candidate : candidates(choice)) {
+            if (outOfBudget()) {
+                return false;
+            } // end if
+            steps++;
+            int mark = writtenSize;
+            int trailMark = trailSize;
+            crossed[choice] = apply(word, candidate);
+            placed[choice] = true;
+            codes[choice] = candidate;
+            placedCount++;
+            if (placedCount > bestCount) {
+                recordBest();
+            } // end if
+
+            if (recount(mark) && !exhausted && search()) {
+                return true;
+            } // end if
+
+            // undo placement and try next candidate
+            placed[choice] = false;
+            placedCount--;
+            undo(mark);
+            unblock(trailMark);
+        } // end for
+        return false;
+    } // end search
+
+    // post: method has returned true once the step or time budget has
+    // been used up or the thread has been interrupted
+    private boolean outOfBudget() {
+        if (steps >= maxSteps) {
+            exhausted = true;
+        } // end if
+        return outOfTime() || exhausted;
+    } // end outOfBudget
+
+    // post: method has returned true once the time budget has been used up
+    // or the thread has been interrupted, which also exhausts the search -
+    // cheap enough to call for every cell a scan visits, as the clock is
+    // only read now and then
+    private boolean outOfTime() {
+        if (!timedOut && (++ticks & CLOCK_MASK) == 0 && (System.nanoTime() > deadline
+                || Thread.currentThread().isInterrupted())) {
+            timedOut = true;
+            exhausted = true;
+        } // end if
+        return timedOut;
+    } // end outOfTime
+
+    // post: number of clear placements of word w in every enabled
+    // direction has been returned, or any number once the budget runs out
+    private int countPlacements(int w) {
+        return (int) (-1 - scan(w, Long.MAX_VALUE, true));
+    } // end countPlacements
+
+    // post: a clear placement of word w has been returned, encoded by
+    // encode, or -1 if there is none or the time budget ran out - the first
+    // one crossing letters already in the grid, otherwise one drawn at
+    // random, found without collecting every placement as candidates does
+    private long anyPlacement(int w) {
+        String word = words[w];
+        int width = grid.getWidth();
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            for (int m = 0; m < letters.count(c); m++) {
+                int cell = letters.get(c, m);
+                if (outOfTime()) {
+                    return -1;
+                } // end if
+                for (Direction direction : directions) {
+                    if (palindromes[w] && isDuplicate(direction)) {
+                        continue;
+                    } // end if
+                    int startX = cell % width - i * direction.getDx();
+                    int startY = cell / width - i * direction.getDy();
+                    if (grid.fits(startX, startY, word.length(), direction)
+                            && fits(word, grid.index(startX, startY), direction)) {
+                        return encode(grid.index(startX, startY), direction);
+                    } // end if
+                } // end direction for
+            } // end candidate for
+        } // end String traversal loop
+        long count = -1 - scan(w, Long.MAX_VALUE, true);
+        if (count == 0 || timedOut) {
+            return -1;
+        } // end if
+        long code = scan(w, rand.nextLong(count), true);
+        return code < 0 ? -1 : code;
+    } // end anyPlacement
+
+    // post: clear placements of word w have been numbered from 0 in scan
+    // order and the one numbered pick returned, encoded by encode, or
+    // -1 - count if there are only count of them; if timed, the scan
+    // stops early once the time budget runs out
+    private long scan(int w, long pick, boolean timed) {
+        String word = words[w];
+        long count = 0;
+        for (Direction direction : directions) {
+            if (palindromes[w] && isDuplicate(direction)) {
+                continue;
+            } // end if
+            int firstX = direction.firstX(word.length());
+            int firstY = direction.firstY(word.length());
+            int maxX = firstX + direction.spanX(word.length(), grid.getWidth());
+            int maxY = firstY + direction.spanY(word.length(), grid.getHeight());
+            for (int y = firstY; y < maxY; y++) {
+                for (int x = firstX; x < maxX; x++) {
+                    if (timed && outOfTime()) {
+                        return -1 - count;
+                    } // end if
+                    if (grid.fits(x, y, word.length(), direction)
+                            && fits(word, grid.index(x, y), direction)) {
+                        if (count == pick) {
+                            return encode(grid.index(x, y), direction);
+                        } // end if
+                        count++;
+                    } // end if
+                } // end horizontal for
+            } // end vertical for
+        } // end direction for
+        return -1 - count;
+    } // end scan
+
+    // pre: the cells written since the written stack held mark entries
+    // were empty before the last placement
+    // post: counts of every unplaced word have been brought up to date -
+    // only placements through those cells can have changed, a clear one
+    // is blocked unless it has the new letter there, and only then is its
+    // whole path read again; every placement blocked has been pushed on
+    // the trail. Method has returned false as soon as a word was left with
+    // no clear placement, as the branch then ends anyway.
+    private boolean recount(int mark) {
+        int width = grid.getWidth();
+        for (int w = 0; w < words.length; w++) {
+            if (placed[w]) {
+                continue;
+            } // end if
+            String word = words[w];
+            int length = word.length();
+            long base = (long) w * grid.size();
+            for (int i = mark; i < writtenSize; i++) {
+                if (outOfTime()) {
+                    break;
+                } // end if
+                int cell = written[i];
+                char c = grid.get(cell);
+                for (int d = 0; d < directions.length; d++) {
+                    Direction direction = directions[d];
+                    if (palindromes[w] && isDuplicate(direction)) {
+                        continue;
+                    } // end if
+                    for (int k = 0; k < length; k++) {
+                        int startX = cell % width - k * direction.getDx();
+                        int startY = cell / width - k * direction.getDy();
+                        if (!grid.fits(startX, startY, length, direction)) {
+                            continue;
+                        } // end if
+                        int start = grid.index(startX, startY);
+                        long key = (base + start) * directions.length + d;
+                        if (!isBlocked(key)
+                                && (word.charAt(k) != c || !fits(word, start, direction))) {
+                            block(key);
+                            if (--counts[w] == 0) {
+                                return false;
+                            } // end if
+                        } // end if
+                    } // end offset for
+                } // end direction for
+            } // end filled for
+        } // end word for
+        return true;
+    } // end recount
+
+    // post: method has returned true if placement key is blocked
+    private boolean isBlocked(long key) {
+        int mask = blocked.length - 1;
+        for (int slot = slot(key); blocked[slot] != FREE; slot = (slot + 1) & mask) {
+            if (blocked[slot] == key) {
+                return true;
+            } // end if
+        } // end for
+        return false;
+    } // end isBlocked
+
+    // pre: placement key is not blocked
+    // post: key has been added to blocked and pushed on the trail
+    private void block(long key) {
+        int mask = blocked.length - 1;
+        int slot = slot(key);
+        while (blocked[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        } // end while
+        if (trailSize == trail.length) {
+            trail = Arrays.copyOf(trail, trailSize * 2);
+        } // end if
+        trail[trailSize++] = key;
+        if (trailSize * 2 > blocked.length) {
+            // a larger table, filled in trail order so every removal still
+            // comes last on its probe path
+            blocked = new long[blocked.length * 2];
+            Arrays.fill(blocked, FREE);
+            mask = blocked.length - 1;
+            for (int i = 0; i < trailSize; i++) {
+                slot = slot(trail[i]);
+                while (blocked[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                } // end while
+                blocked[slot] = trail[i];
+            } // end for
+        } else {
+            blocked[slot] = key;
+        } // end if/else
+    } // end block
+
+    // post: every placement blocked since the trail held mark entries is
+    // clear again and counted for its word
+    private void unblock(int mark) {
+        int mask = blocked.length - 1;
+        while (trailSize > mark) {
+            long key = trail[--trailSize];
+            int slot = slot(key);
+            while (blocked[slot] != key) {
+                slot = (slot + 1) & mask;
+            } // end while
+            blocked[slot] = FREE;
+            counts[(int) (key / directions.length / grid.size())]++;
+        } // end while
+    } // end unblock
+
+    // post: first slot of the blocked table to probe for key has been
+    // returned
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (blocked.length - 1);
+    } // end slot
+
+    // post: every clear placement of word w has been returned, encoded by
+    // encode - placements crossing letters already in the grid come first,
+    // the rest follow in random order; none are returned once the budget
+    // runs out
+    private long[] candidates(int w) {
+        String word = words[w];
+        boolean palindrome = palindromes[w];
+        Set<Long> crossing = new LinkedHashSet<>();
+        int width = grid.getWidth();
+
+        // intersections - only cells already holding a char of the word
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            for (int m = 0; m < letters.count(c); m++) {
+                int cell = letters.get(c, m);
+                for (Direction direction : directions) {
+                    if (palindrome && isDuplicate(direction)) {
+                        continue;
+                    } // end if
+                    int startX = cell % width - i * direction.getDx();
+                    int startY = cell / width - i * direction.getDy();
+                    if (grid.fits(startX, startY, word.length(), direction)) {
+                        int start = grid.index(startX, startY);
+                        if (fits(word, start, direction)) {
+                            crossing.add(encode(start, direction));
+                        } // end if
+                    } // end if
+                } // end direction for
+            } // end candidate for
+        } // end String traversal loop
+
+        // every other clear placement
+        List<Long> free = new ArrayList<>();
+        for (Direction direction : directions) {
+            if (palindrome && isDuplicate(direction)) {
+                continue;
+            } // end if
+            int firstX = direction.firstX(word.length());
+            int firstY = direction.firstY(word.length());
+            int maxX = firstX + direction.spanX(word.length(), grid.getWidth());
+            int maxY = firstY + direction.spanY(word.length(), grid.getHeight());
+            for (int y = firstY; y < maxY; y++) {
+                for (int x = firstX; x < maxX; x++) {
+                    if (outOfTime()) {
+                        return new long[0];
+                    } // end if
+                    int cell = grid.index(x, y);
+                    long code = encode(cell, direction);
+                    if (grid.fits(x, y, word.length(), direction)
+                            && !crossing.contains(code) && fits(word, cell, direction)) {
+                        free.add(code);
+                    } // end if
+                } // end horizontal for
+            } // end vertical for
+        } // end direction for
+
+        long[] result = new long[crossing.size() + free.size()];
+        int n = 0;
+        for (long code : crossing) {
+            result[n++] = code;
+        } // end for
+        for (long code : free) {
+            result[n++] = code;
+        } // end for
+        // shuffle free placements so layouts do not cluster in one corner
+        for (int i = result.length - 1; i > crossing.size(); i--) {
+            int j = crossing.size() + rand.nextInt(i - crossing.size() + 1);
+            long temp = result[i];
+            result[i] = result[j];
+            result[j] = temp;
+        } // end for
+        return result;
+    } // end candidates
+
+    // post: method has returned true if word reads the same backwards
+    private static boolean isPalindrome(String word) {
+        for (int i = 0, j = word.length() - 1; i < j; i++, j--) {
+            if (word.charAt(i) != word.charAt(j)) {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end isPalindrome
+
+    // post: method has returned true if a palindrome placed in direction
+    // covers the same cells as one placed in its enabled reverse, which is
+    // then the one kept
+    private boolean isDuplicate(Direction direction) {
+        Direction reverse = direction.reverse();
+        if (reverse.ordinal() > direction.ordinal()) {
+            return false;
+        } // end if
+        for (Direction d : directions) {
+            if (d == reverse) {
+                return true;
+            } // end if
+        } // end for
+        return false;
+    } // end isDuplicate
+
+    // pre: word starting at cell stays inside the grid, and on its shape
+    // post: method has returned true if every cell on the path is empty
+    // or already holds the matching char, and at least one is empty so
+    // the word is not hidden entirely inside another
+    private boolean fits(String word, int cell, Direction direction) {
+        pathChecks++;
+        int step = direction.step(grid.getWidth());
+        boolean anyEmpty = false;
+        for (int i = 0; i < word.length(); i++, cell += step) {
+            char c = grid.get(cell);
+            if (c == Grid.EMPTY) {
+                anyEmpty = true;
+            } else if (c != word.charAt(i)) {
+                pathRejections++;
+                return false;
+            } // end if/else
+        } // end for
+        if (!anyEmpty) {
+            pathRejections++;
+        } // end if
+        return anyEmpty;
+    } // end fits
+
+    // post: word has been written at the placement encoded by code, and
+    // every cell it newly filled has been pushed on the written stack -
+    // method has returned true if the word crossed a letter already there
+    private boolean apply(String word, long code) {
+        int cell = (int) (code >>> 3);
+        int step = DIRECTIONS[(int) (code & 7)].step(grid.getWidth());
+        int mark = writtenSize;
+        for (int i = 0; i < word.length(); i++, cell += step) {
+            if (grid.get(cell) == Grid.EMPTY) {
+                if (writtenSize == written.length) {
+                    written = Arrays.copyOf(written, writtenSize * 2);
+                } // end if
+                written[writtenSize++] = cell;
+                letters.add(word.charAt(i), cell);
+            } // end if
+            grid.setWordChar(cell, word.charAt(i));
+        } // end for
+        return writtenSize - mark < word.length();
+    } // end apply
+
+    // post: every cell written since the written stack held mark entries
+    // has been emptied again
+    private void undo(int mark) {
+        while (writtenSize > mark) {
+            int cell = written[--writtenSize];
+            letters.remove(grid.get(cell), cell);
+            grid.clear(cell);
+        } // end while
+    } // end undo
+
+    // post: current layout has been saved as the deepest one reached
+    private void recordBest() {
+        if (bestGrid == null) {
+            bestGrid = grid.copy();
+        } else {
+            bestGrid.copyFrom(grid);
+        } // end if/else
+        bestPlaced = placed.clone();
+        bestCrossed = crossed.clone();
+        bestCodes = codes.clone();
+        bestCount = placedCount;
+    } // end recordBest
+
+    // post: placement has been packed into a long - start cell and
+    // direction
+    private static long encode(int cell, Direction direction) {
+        return ((long) cell << 3) | direction.ordinal();
+    } // end encode
+} // end BacktrackingSearch class
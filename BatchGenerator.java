@@ -0,0 +1,625 @@
+// Word Search Generator
+// BatchGenerator - generate many puzzles from a manifest file
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import javax.management.JMException;
+
+// begin BatchGenerator class - reads a manifest of generation jobs and
+// produces every requested puzzle through PuzzleEngine
+//
+// manifest format, one job per line:
+//     <count> <SMALL|MEDIUM|LARGE|COMPACT> <seed|-> WORD WORD ...
+//     <count> <SMALL|MEDIUM|LARGE|COMPACT> <seed|-> @dictionary[:k]
+// COMPACT searches for the smallest grid holding every word, see
+// CompactSearch; a size of @mask[:columns] gives every puzzle the shape of
+// a mask file, relative to the manifest and read by GridMask.read, scaled
+// to the given number of columns; @dictionary reads the words of a dictionary file,
+// relative to the manifest, through WordListReader, and with :k every
+// puzzle gets its own sample of k words; blank lines and lines starting
+// with '#' are ignored; when a seed is given, puzzle i of the job is
+// generated with seed + i, giving the same puzzle whether the batch runs
+// on one thread or many, and seeded puzzles are looked up in the cache,
+// if there is one, before being generated
+public class BatchGenerator {
+    // puzzles kept in memory by the cache of the command line tool
+    private static final int CACHE_ENTRIES = 1024;
+
+    private final int threads;
+    private final WordOrder wordOrder;
+    private final DirectionWeights directions;
+    private final GridFiller filler;
+    private final PuzzleCache cache; // null if puzzles are not cached
+    private final GenerationMetrics metrics;
+    private final BestOfSearch best; // null for one candidate per puzzle
+    private final SearchBudget budget; // null for heuristic placement
+
+    // begin constructor - puzzles are generated on the calling thread
+    public BatchGenerator() {
+        this(1);
+    } // end constructor
+
+    // constructor - puzzles are generated on a fork-join pool of the given
+    // number of worker threads
+    public BatchGenerator(int threads) {
+        this(threads, WordOrder.LENGTH_DESCENDING);
+    } // end constructor
+
+    // constructor - words of every puzzle are placed in wordOrder
+    public BatchGenerator(int threads, WordOrder wordOrder) {
+        this(threads, wordOrder, null);
+    } // end constructor
+
+    // constructor - seeded puzzles are taken from cache when it holds them
+    // and stored in it otherwise, a null cache disables caching
+    public BatchGenerator(int threads, WordOrder wordOrder, PuzzleCache cache) {
+        this(threads, wordOrder, DirectionWeights.CLASSIC, GridFiller.DEFAULT, cache);
+    } // end constructor
+
+    // constructor - the direction of every word is drawn from directions
+    // and empty cells are filled by filler
+    public BatchGenerator(int threads, WordOrder wordOrder, DirectionWeights directions,
+                          GridFiller filler, PuzzleCache cache) {
+        this(threads, wordOrder, directions, filler, cache, GenerationMetrics.NONE);
+    } // end constructor
+
+    // constructor - every puzzle generated, rather than taken from the
+    // cache, is reported to metrics
+    public BatchGenerator(int threads, WordOrder wordOrder, DirectionWeights directions,
+                          GridFiller filler, PuzzleCache cache,
+                          GenerationMetrics metrics) {
+        this(threads, wordOrder, directions, filler, cache, metrics, null);
+    } // end constructor
+
+    // constructor - every puzzle is the best candidate of best, one
+    // candidate if best is null; candidates of a puzzle are generated on
+    // the thread of that puzzle, whatever the threads of best, and
+    // COMPACT and shaped jobs ignore best
+    public BatchGenerator(int threads, WordOrder wordOrder, DirectionWeights directions,
+                          GridFiller filler, PuzzleCache cache,
+                          GenerationMetrics metrics, BestOfSearch best) {
+        this(threads, wordOrder, directions, filler, cache, metrics, best, null);
+    } // end constructor
+
+    // constructor - words are placed by backtracking search within budget,
+    // or by the heuristic if budget is null, see PuzzleEngine
+    public BatchGenerator(int threads, WordOrder wordOrder, DirectionWeights directions,
+                          GridFiller filler, PuzzleCache cache,
+                          GenerationMetrics metrics, BestOfSearch best,
+                          SearchBudget budget) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        } // end if
+        this.threads = threads;
+        this.wordOrder = wordOrder;
+        this.directions = directions;
+        this.filler = filler;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.best = best == null ? null : best.withThreads(1);
+        this.budget = budget;
+    } // end constructor
+
+    // begin Job class - a single manifest line
+    public static final class Job {
+        private final int count;
+        private final Size size; // null for the smallest grid or a mask
+        private final GridMask mask; // null for a square grid
+        private final Long seed; // null if puzzles are not seeded
+        private final List<String> words;
+        // word list of each puzzle, null if every puzzle uses words
+        private final List<List<String>> samples;
+
+        // begin constructor
+        public Job(int count, Size size, Long seed, List<String> words) {
+            this(count, size, null, seed, words, null);
+        } // end constructor
+
+        // post: job in which puzzle i uses samples.get(i) as its word list
+        // has been returned
+        public static Job sampled(int count, Size size, Long seed,
+                                  List<List<String>> samples) {
+            if (samples.size() < count) {
+                throw new IllegalArgumentException("job has " + count
+                        + " puzzles but " + samples.size() + " samples");
+            } // end if
+            return new Job(count, size, null, seed,
+                    samples.isEmpty() ? List.of() : samples.get(0),
+                    List.copyOf(samples));
+        } // end sampled
+
+        // shared constructor
+        private Job(int count, Size size, GridMask mask, Long seed, List<String> words,
+                    List<List<String>> samples) {
+            if (count < 0) {
+                throw new IllegalArgumentException("count must not be negative");
+            } // end if
+            if (words.isEmpty()) {
+                throw new IllegalArgumentException("job has no words");
+            } // end if
+            this.count = count;
+            this.size = size;
+            this.mask = mask;
+            this.seed = seed;
+            this.words = List.copyOf(words);
+            this.samples = samples;
+        } // end constructor
+
+        // post: job identical to this one but giving every puzzle the
+        // shape of mask, whatever its size, has been returned
+        public Job withMask(GridMask mask) {
+            return new Job(count, size, mask, seed, words, samples);
+        } // end withMask
+
+        // get methods
+        public int getCount() {
+            return count;
+        } // end getCount
+        public Size getSize() {
+            return size;
+        } // end getSize
+        public GridMask getMask() {
+            return mask;
+        } // end getMask
+        public boolean isCompact() {
+            return size == null && mask == null;
+        } // end isCompact
+        public Long getSeed() {
+            return seed;
+        } // end getSeed
+        public List<String> getWords() {
+            return words;
+        } // end getWords
+
+        // post: word list of puzzle index has been returned
+        public List<String> getWords(int index) {
+            return samples == null ? words : samples.get(index);
+        } // end getWords
+    } // end Job class
+
+    // post: every job in manifest file has been parsed and returned,
+    // dictionaries read as words from A to Z
+    public static List<Job> readManifest(Path manifest) throws IOException {
+        return readManifest(manifest, Alphabet.LATIN);
+    } // end readManifest
+
+    // post: every job in manifest file has been parsed and returned, its
+    // words and dictionaries read as words of alphabet
+    public static List<Job> readManifest(Path manifest, Alphabet alphabet)
+            throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        // masks already read, by file and columns, so jobs of one shape
+        // share its run tables
+        Map<String, GridMask> masks = new HashMap<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            } // end if
+            String[] tokens = line.split("\\s+");
+            if (tokens.length < 4) {
+                throw new IOException("manifest line " + lineNumber
+                        + ": expected <count> <size> <seed|-> WORD ...");
+            } // end if
+            try {
+                int count = Integer.parseInt(tokens[0]);
+                GridMask mask = null;
+                Size size = null;
+                if (tokens[1].startsWith("@")) {
+                    String source = tokens[1].substring(1);
+                    mask = masks.get(source);
+                    if (mask == null) {
+                        mask = readMask(manifest, source);
+                        masks.put(source, mask);
+                    } // end if
+                } else if (!tokens[1].equalsIgnoreCase("COMPACT")) {
+                    size = Size.valueOf(tokens[1].toUpperCase(Locale.ROOT));
+                } // end if/else
+                Long seed = tokens[2].equals("-") ? null : Long.valueOf(tokens[2]);
+                Job job;
+                if (tokens[3].startsWith("@")) {
+                    job = readDictionaryJob(manifest, tokens[3].substring(1),
+                            count, size, seed, alphabet);
+                } else {
+                    List<String> words = Arrays.asList(tokens).subList(3, tokens.length);
+                    for (String word : words) {
+                        if (!alphabet.contains(alphabet.normalize(word))) {
+                            throw new IllegalArgumentException(word
+                                    + " is not a word of alphabet " + alphabet);
+                        } // end if
+                    } // end for
+                    job = new Job(count, size, seed, words);
+                } // end if/else
+                jobs.add(mask == null ? job : job.withMask(mask));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("manifest line " + lineNumber + ": "
+                        + e.getMessage(), e);
+            } // end try/catch
+        } // end for
+        return jobs;
+    } // end readManifest
+
+    // pre: source = mask file[:columns]
+    // post: mask in the file, scaled to columns if given, has been
+    // returned
+    private static GridMask readMask(Path manifest, String source) throws IOException {
+        int columns = 0;
+        int colon = source.lastIndexOf(':');
+        if (colon > 0) {
+            columns = Integer.parseInt(source.substring(colon + 1));
+            source = source.substring(0, colon);
+        } // end if
+        Path parent = manifest.toAbsolutePath().getParent();
+        GridMask mask = GridMask.read(parent == null ? Path.of(source) : parent.resolve(source));
+        return columns == 0 ? mask : mask.scaled(columns);
+    } // end readMask
+
+    // pre: source = dictionary file[:k]
+    // post: job using every word of the dictionary, or count samples of k
+    // words drawn from seed in a single pass, has been returned
+    private static Job readDictionaryJob(Path manifest, String source, int count,
+                                         Size size, Long seed, Alphabet alphabet)
+            throws IOException {
+        int k = 0;
+        int colon = source.lastIndexOf(':');
+        if (colon > 0) {
+            k = Integer.parseInt(source.substring(colon + 1));
+            source = source.substring(0, colon);
+        } // end if
+        Path parent = manifest.toAbsolutePath().getParent();
+        Path dictionary = parent == null ? Path.of(source) : parent.resolve(source);
+        WordListReader reader = new WordListReader(3, Integer.MAX_VALUE, alphabet);
+        if (k == 0) {
+            return new Job(count, size, seed, reader.readAll(dictionary));
+        } // end if
+        long sampleSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        return Job.sampled(count, size, seed,
+                reader.sample(dictionary, k, Math.max(count, 1), sampleSeed));
+    } // end readDictionaryJob
+
+    // post: every puzzle requested by jobs has been generated and returned
+    // in manifest order
+    public List<Puzzle> generate(List<Job> jobs) {
+        List<Task> tasks = expand(jobs);
+        Puzzle[] puzzles = new Puzzle[tasks.size()];
+        if (threads == 1) {
+            new GenerateTask(tasks, puzzles, 0, tasks.size()).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new GenerateTask(tasks, puzzles, 0, tasks.size()));
+            } finally {
+                pool.shutdown();
+            } // end try/finally
+        } // end if/else
+        return Arrays.asList(puzzles);
+    } // end generate
+
+    // post: jobs have been expanded into one task per puzzle
+    private List<Task> expand(List<Job> jobs) {
+        List<Task> tasks = new ArrayList<>();
+        for (Job job : jobs) {
+            PuzzleEngine engine = new PuzzleEngine(job.isCompact() ? Size.MEDIUM
+                    : job.getSize(), budget, wordOrder, directions, filler, metrics);
+            for (int i = 0; i < job.getCount(); i++) {
+                tasks.add(new Task(engine, cache, best, job, i));
+            } // end for
+        } // end for
+        return tasks;
+    } // end expand
+
+    // begin Task class - puzzle number index of a job
+    private static final class Task {
+        private final PuzzleEngine engine;
+        private final PuzzleCache cache; // null if puzzles are not cached
+        private final BestOfSearch best; // null for one candidate
+        private final Job job;
+        private final int index;
+
+        // begin constructor
+        Task(PuzzleEngine engine, PuzzleCache cache, BestOfSearch best, Job job,
+             int index) {
+            this.engine = engine;
+            this.cache = cache;
+            this.best = best;
+            this.job = job;
+            this.index = index;
+        } // end constructor
+
+        // post: puzzle has been generated, from seed + index if the job is
+        // seeded or from the random source of the current thread otherwise;
+        // a seeded puzzle has been taken from or added to the cache; with
+        // best, the puzzle is the best of its candidates, except for a
+        // compact or shaped job
+        Puzzle run() {
+            if (job.getMask() != null) {
+                return runMasked();
+            } // end if
+            if (job.isCompact()) {
+                // batch is already spread over the pool, search on this thread
+                CompactSearch search = new CompactSearch(engine, 1);
+                return job.getSeed() != null
+                        ? search.generate(job.getWords(index), job.getSeed() + index)
+                        : search.generate(job.getWords(index));
+            } // end if
+            if (best != null) {
+                return runBest();
+            } // end if
+            List<String> words = job.getWords(index);
+            if (job.getSeed() == null) {
+                return engine.generate(words);
+            } // end if
+            long seed = job.getSeed() + index;
+            return cached(engine.key(words, seed), () -> engine.generate(words, seed));
+        } // end run
+
+        // post: puzzle of the shape of the job's mask has been generated as
+        // run describes
+        private Puzzle runMasked() {
+            List<String> words = job.getWords(index);
+            GridMask mask = job.getMask();
+            if (job.getSeed() == null) {
+                return engine.generate(words, mask, ThreadLocalRandom.current());
+            } // end if
+            long seed = job.getSeed() + index;
+            return cached(engine.key(words, mask, seed),
+                    () -> engine.generate(words, mask, seed));
+        } // end runMasked
+
+        // post: best candidate has been generated as run describes
+        private Puzzle runBest() {
+            List<String> words = job.getWords(index);
+            if (job.getSeed() == null) {
+                return best.generate(engine, words);
+            } // end if
+            long seed = job.getSeed() + index;
+            return cached(best.key(engine, words, seed),
+                    () -> best.generate(engine, words, seed));
+        } // end runBest
+
+        // pre: key identifies the puzzle generator returns
+        // post: puzzle stored under key has been returned, or generated by
+        // generator and stored if there was none; without a cache it has
+        // only been generated
+        private Puzzle cached(PuzzleKey key, Supplier<Puzzle> generator) {
+            if (cache == null) {
+                return generator.get();
+            } // end if
+            try {
+                return cache.get(key, generator);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } // end try/catch
+        } // end cached
+    } // end Task class
+
+    // begin GenerateTask class - fork-join task which splits a range of
+    // tasks in half until it is small enough to generate directly; every
+    // puzzle gets its own WordSearchGenerator so workers share no state
+    private static final class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 8;
+        private final List<Task> tasks;
+        private final Puzzle[] puzzles;
+        private final int from;
+        private final int to;
+
+        // begin constructor
+        GenerateTask(List<Task> tasks, Puzzle[] puzzles, int from, int to) {
+            this.tasks = tasks;
+            this.puzzles = puzzles;
+            this.from = from;
+            this.to = to;
+        } // end constructor
+
+        // post: puzzles[from, to) have been generated
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    puzzles[i] = tasks.get(i).run();
+                } // end for
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GenerateTask(tasks, puzzles, from, mid),
+                        new GenerateTask(tasks, puzzles, mid, to));
+            } // end if/else
+        } // end compute
+    } // end GenerateTask class
+
+    // post: jobs have been generated and timed, puzzles are discarded
+    public ThroughputReport measure(List<Job> jobs) {
+        long start = System.nanoTime();
+        int count = generate(jobs).size();
+        return new ThroughputReport(count, System.nanoTime() - start, threads);
+    } // end measure
+
+    // begin ThroughputReport class - puzzles per second overall and per
+    // worker thread for a single batch
+    public static final class ThroughputReport {
+        private final int puzzles;
+        private final long elapsedNanos;
+        private final int threads;
+
+        // begin constructor
+        public ThroughputReport(int puzzles, long elapsedNanos, int threads) {
+            this.puzzles = puzzles;
+            this.elapsedNanos = elapsedNanos;
+            this.threads = threads;
+        } // end constructor
+
+        // post: puzzles generated per second has been returned
+        public double puzzlesPerSecond() {
+            return puzzles / (Math.max(elapsedNanos, 1) / 1e9);
+        } // end puzzlesPerSecond
+
+        // post: puzzles generated per second per worker thread has been
+        // returned, which stays flat when generation scales linearly
+        public double puzzlesPerSecondPerThread() {
+            return puzzlesPerSecond() / threads;
+        } // end puzzlesPerSecondPerThread
+
+        // toString method
+        public String toString() {
+            return String.format("%d puzzles in %d ms on %d threads: "
+                    + "%.1f puzzles/s, %.1f puzzles/s per thread", puzzles,
+                    elapsedNanos / 1_000_000, threads, puzzlesPerSecond(),
+                    puzzlesPerSecondPerThread());
+        } // end toString
+    } // end ThroughputReport class
+
+    // pre: args = [--threads n] [--format text|csv|json] [--order order]
+    //   [--directions weights] [--fill distribution] [--blocklist file]
+    //   [--cache directory] [--metrics name] [--archive file]
+    //   [--best n] [--min-score score] [--best-ms millis]
+    //   [--budget default|steps,millis] manifest file, output file
+    //   or args = --scaling manifest file
+    // post: puzzles described by manifest have been generated and written
+    // to output file, or generated once for every thread count from 1 up
+    // to the number of cores with a throughput report for each
+    public static void run(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--scaling")) {
+            if (args.length != 2) {
+                System.err.println("usage: batch --scaling <manifest>");
+                return;
+            } // end if
+            List<Job> jobs = readManifest(Path.of(args[1]));
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int n = 1; n <= cores; n = n < cores && n * 2 > cores ? cores : n * 2) {
+                System.out.println(new BatchGenerator(n).measure(jobs));
+            } // end for
+            return;
+        } // end if
+
+        String usage = "usage: batch [--threads n] [--format text|csv|json] "
+                + "[--order length_descending|most_shared_letters|"
+                + "rarest_letter_first] [--directions classic|all|forward|"
+                + "east=n,south=n,...] [--fill uniform|english|spanish|german|greek|russian] "
+                + "[--blocklist <file>] "
+                + "[--cache <dir>] [--metrics <name>] [--archive <file>] "
+                + "[--best <n>] [--min-score <score>] [--best-ms <millis>] "
+                + "[--budget default|<steps>,<millis>] <manifest> <output>";
+        int threads = 1;
+        Path cacheDirectory = null;
+        WordOrder wordOrder = WordOrder.LENGTH_DESCENDING;
+        DirectionWeights directions = DirectionWeights.CLASSIC;
+        LetterDistribution fill = LetterDistribution.UNIFORM;
+        Path blocklist = null;
+        String metricsName = null;
+        Path archive = null;
+        int candidates = 1;
+        double minScore = Double.POSITIVE_INFINITY;
+        long bestMillis = 0;
+        SearchBudget budget = null;
+        PuzzleRenderer.Format format = PuzzleRenderer.Format.TEXT;
+        int i = 0;
+        try {
+            // options come in pairs before the two file names
+            while (args.length - i > 2) {
+                if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--format")) {
+                    format = PuzzleRenderer.Format.valueOf(
+                            args[i + 1].toUpperCase(Locale.ROOT));
+                } else if (args[i].equals("--order")) {
+                    wordOrder = WordOrder.valueOf(args[i + 1].toUpperCase(Locale.ROOT));
+                } else if (args[i].equals("--directions")) {
+                    directions = DirectionWeights.parse(args[i + 1]);
+                } else if (args[i].equals("--fill")) {
+                    fill = LetterDistribution.forName(args[i + 1]);
+                } else if (args[i].equals("--blocklist")) {
+                    blocklist = Path.of(args[i + 1]);
+                } else if (args[i].equals("--cache")) {
+                    cacheDirectory = Path.of(args[i + 1]);
+                } else if (args[i].equals("--metrics")) {
+                    metricsName = args[i + 1];
+                } else if (args[i].equals("--archive")) {
+                    archive = Path.of(args[i + 1]);
+                } else if (args[i].equals("--best")) {
+                    candidates = Integer.parseInt(args[i + 1]);
+                } else if (args[i].equals("--min-score")) {
+                    minScore = Double.parseDouble(args[i + 1]);
+                } else if (args[i].equals("--best-ms")) {
+                    bestMillis = Long.parseLong(args[i + 1]);
+                } else if (args[i].equals("--budget")) {
+                    budget = SearchBudget.parse(args[i + 1]);
+                } else {
+                    System.err.println(usage);
+                    return;
+                } // end if/else
+                i += 2;
+            } // end while
+        } catch (IllegalArgumentException e) {
+            System.err.println(usage);
+            return;
+        } // end try/catch
+        if (args.length - i != 2 || threads < 1 || candidates < 1 || bestMillis < 0) {
+            System.err.println(usage);
+            return;
+        } // end if
+
+        List<Job> jobs = readManifest(Path.of(args[i]), fill.getAlphabet());
+        PuzzleCache cache = cacheDirectory == null ? null
+                : new PuzzleCache(CACHE_ENTRIES, cacheDirectory);
+        // blocked words of any length in the alphabet filled in
+        GridFiller filler = new GridFiller(fill, blocklist == null ? List.of()
+                : new WordListReader(1, Integer.MAX_VALUE, fill.getAlphabet())
+                        .readAll(blocklist));
+        MetricsRecorder metrics = null;
+        if (metricsName != null) {
+            metrics = new MetricsRecorder();
+            try {
+                metrics.register(metricsName);
+            } catch (JMException e) {
+                // still summarised below, just not visible over JMX
+                System.err.println("metrics not registered with JMX: " + e.getMessage());
+            } // end try/catch
+        } // end if
+        BestOfSearch best = candidates == 1 ? null : new BestOfSearch(candidates, 1,
+                LayoutScorer.DEFAULT, minScore, bestMillis);
+        BatchGenerator generator = new BatchGenerator(threads, wordOrder, directions,
+                filler, cache, metrics == null ? GenerationMetrics.NONE : metrics, best,
+                budget);
+        long start = System.nanoTime();
+        List<Puzzle> puzzles = generator.generate(jobs);
+        ThroughputReport report = new ThroughputReport(puzzles.size(),
+                System.nanoTime() - start, threads);
+        long renderStart = System.nanoTime();
+        new PuzzleRenderer(format).writeAll(puzzles, false, Path.of(args[i + 1]));
+        System.out.println("Generated " + report);
+        System.out.printf("Rendered %d puzzles in %d ms%n", puzzles.size(),
+                (System.nanoTime() - renderStart) / 1_000_000);
+        if (archive != null) {
+            try (PuzzleArchiveWriter writer = new PuzzleArchiveWriter(archive, true,
+                    fill.getAlphabet())) {
+                writer.appendAll(puzzles);
+                System.out.printf("Archived %d puzzles, %d in %s%n", puzzles.size(),
+                        writer.size(), archive);
+            } // end try
+        } // end if
+        if (cache != null) {
+            System.out.printf("Cache: %d hits, %d misses%n", cache.getHits(),
+                    cache.getMisses());
+        } // end if
+        if (metrics != null) {
+            System.out.println("Metrics: " + metrics);
+        } // end if
+    } // end run
+} // end BatchGenerator class
@@ -0,0 +1,231 @@
+// Word Search Generator
+// BestOfSearch - keep the best of several candidate puzzles
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// begin BestOfSearch class - generates several candidate layouts of the
+// same words, one per thread at a time, rates each with a PuzzleScorer
+// and keeps the best, so a puzzle looks better at the cost of a known
+// number of generations
+//
+// the search stops early once a candidate scores minScore or more, or
+// once timeoutMillis have passed and at least one candidate is done.
+// Without a timeout the result is the first candidate, in candidate
+// order, which reached minScore, or else the highest scoring one, the
+// first of equals; so a seeded search returns the same puzzle on any
+// number of threads. Candidate i of a seeded search is generated from
+// seed + i * GAMMA, candidate 0 being the puzzle engine.generate(words,
+// seed) returns. Candidates already running when the search stops are
+// left to finish in the background and dropped.
+public final class BestOfSearch {
+    // odd constant spacing the seeds of candidates, as SplittableRandom
+    // spaces its own
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int candidates;
+    private final int threads;
+    private final PuzzleScorer scorer;
+    private final double minScore;
+    private final long timeoutMillis;
+
+    // begin constructor - candidates are generated on the calling thread,
+    // every one of them, and scored by LayoutScorer.DEFAULT
+    public BestOfSearch(int candidates) {
+        this(candidates, 1);
+    } // end constructor
+
+    // constructor - candidates are generated on the given number of threads
+    public BestOfSearch(int candidates, int threads) {
+        this(candidates, threads, LayoutScorer.DEFAULT);
+    } // end constructor
+
+    // constructor - candidates are scored by scorer
+    public BestOfSearch(int candidates, int threads, PuzzleScorer scorer) {
+        this(candidates, threads, scorer, Double.POSITIVE_INFINITY, 0);
+    } // end constructor
+
+    // constructor - the search stops at the first candidate scoring
+    // minScore or more, or after timeoutMillis if that is positive
+    public BestOfSearch(int candidates, int threads, PuzzleScorer scorer,
+                        double minScore, long timeoutMillis) {
+        if (candidates < 1 || threads < 1) {
+            throw new IllegalArgumentException("candidates and threads must be positive");
+        } // end if
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        } // end if
+        this.candidates = candidates;
+        this.threads = threads;
+        this.scorer = scorer;
+        this.minScore = minScore;
+        this.timeoutMillis = timeoutMillis;
+    } // end constructor
+
+    // post: search identical to this one but on the given number of
+    // threads has been returned
+    public BestOfSearch withThreads(int threads) {
+        return new BestOfSearch(candidates, threads, scorer, minScore, timeoutMillis);
+    } // end withThreads
+
+    // pre: words is not empty
+    // post: best candidate generated by engine has been returned
+    public Puzzle generate(PuzzleEngine engine, List<String> words) {
+        return search(engine, words, null);
+    } // end generate
+
+    // pre: words is not empty
+    // post: as above, with candidate i generated from seed + i * GAMMA
+    public Puzzle generate(PuzzleEngine engine, List<String> words, long seed) {
+        return search(engine, words, seed);
+    } // end generate
+
+    // post: key identifying the puzzle generate(engine, words, seed)
+    // returns has been returned - with a timeout, which candidates are
+    // done in time depends on the machine, so a key only says which
+    // search a puzzle came from
+    public PuzzleKey key(PuzzleEngine engine, List<String> words, long seed) {
+        return PuzzleKey.of(engine.key(words, seed) + ";best=" + this, words, seed);
+    } // end key
+
+    // post: best candidate has been returned as described for the class
+    private Puzzle search(PuzzleEngine engine, List<String> words, Long seed) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Candidate best = null;
+        if (threads == 1 || candidates == 1) {
+            for (int i = 0; i < candidates; i++) {
+                Candidate candidate = attempt(engine, words, seed, i);
+                if (best == null || candidate.score > best.score) {
+                    best = candidate;
+                } // end if
+                if (best.score >= minScore
+                        || timeoutMillis > 0 && System.nanoTime() - deadline >= 0) {
+                    break;
+                } // end if
+            } // end for
+            return best.puzzle;
+        } // end if
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, candidates));
+        try {
+            CompletionService<Candidate> service = new ExecutorCompletionService<>(pool);
+            List<Future<Candidate>> futures = new ArrayList<>(candidates);
+            for (int i = 0; i < candidates; i++) {
+                int index = i;
+                futures.add(service.submit(() -> attempt(engine, words, seed, index)));
+            } // end for
+
+            Candidate[] done = new Candidate[candidates];
+            // lowest index which reached minScore, candidates after it are
+            // no longer needed
+            int stop = candidates;
+            // candidates below stop not yet done
+            int waiting = candidates;
+            boolean any = false;
+            while (waiting > 0) {
+                Future<Candidate> future;
+                if (timeoutMillis > 0 && any) {
+                    future = service.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (future == null) {
+                        break; // out of time
+                    } // end if
+                } else {
+                    future = service.take();
+                } // end if/else
+                Candidate candidate;
+                try {
+                    candidate = future.get();
+                } catch (CancellationException e) {
+                    continue; // counted when it was cancelled
+                } // end try/catch
+                done[candidate.index] = candidate;
+                any = true;
+                if (candidate.index >= stop) {
+                    continue; // finished before it could be cancelled
+                } // end if
+                waiting--;
+                if (candidate.score >= minScore) {
+                    for (int i = candidate.index + 1; i < stop; i++) {
+                        if (done[i] == null) {
+                            futures.get(i).cancel(true);
+                            waiting--;
+                        } // end if
+                    } // end for
+                    stop = candidate.index;
+                } // end if
+            } // end while
+            for (int i = 0; i < Math.min(stop + 1, candidates); i++) {
+                if (done[i] != null && (best == null || done[i].score > best.score
+                        || done[i].score >= minScore && best.score < minScore)) {
+                    best = done[i];
+                } // end if
+            } // end for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("best-of search failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        } // end try/catch/finally
+        if (best == null) {
+            // interrupted before any candidate was done
+            best = attempt(engine, words, seed, 0);
+        } // end if
+        return best.puzzle;
+    } // end search
+
+    // post: candidate index has been generated, seeded from seed and index
+    // if seed is not null, and scored
+    private Candidate attempt(PuzzleEngine engine, List<String> words, Long seed,
+                              int index) {
+        Puzzle puzzle = seed == null
+                ? engine.generate(words, ThreadLocalRandom.current())
+                : engine.generate(words, new SplittableRandom(seed + index * GAMMA));
+        return new Candidate(index, puzzle, scorer.score(puzzle));
+    } // end attempt
+
+    // begin Candidate class - a generated puzzle with its score
+    private static final class Candidate {
+        private final int index;
+        private final Puzzle puzzle;
+        private final double score;
+
+        // begin constructor
+        Candidate(int index, Puzzle puzzle, double score) {
+            this.index = index;
+            this.puzzle = puzzle;
+            this.score = score;
+        } // end constructor
+    } // end Candidate class
+
+    // get methods
+    public int getCandidates() {
+        return candidates;
+    } // end getCandidates
+    public int getThreads() {
+        return threads;
+    } // end getThreads
+    public PuzzleScorer getScorer() {
+        return scorer;
+    } // end getScorer
+
+    // toString method - threads are left out, as they do not change the
+    // puzzle chosen
+    public String toString() {
+        return "[candidates = " + candidates + "; scorer = " + scorer
+                + "; minScore = " + minScore + "; timeoutMillis = "
+                + timeoutMillis + "]";
+    } // end toString
+} // end BestOfSearch class
@@ -0,0 +1,173 @@
+// Word Search Generator
+// CompactSearch - find the smallest grid which holds every word
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// begin CompactSearch class - instead of adding a fixed Size to the
+// longest word, searches for the smallest square grid in which the
+// engine places every word
+//
+// an upper bound is found first by growing the grid from the engine's
+// Size until a complete puzzle is generated; the range between the
+// longest word and that bound is then narrowed by trying several sizes at
+// once, one per thread, and as soon as one size succeeds every attempt at
+// a larger size is cancelled. Placement is randomised, so the result is
+// the smallest size found rather than a proven minimum - an engine with a
+// SearchBudget gives far more reliable answers than the heuristic
+public class CompactSearch {
+    private final PuzzleEngine engine;
+    private final int threads;
+
+    // begin constructor
+    public CompactSearch(PuzzleEngine engine, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        } // end if
+        this.engine = engine;
+        this.threads = threads;
+    } // end constructor
+
+    // pre: words is not empty
+    // post: smallest complete puzzle found has been returned, or the
+    // largest attempt if no size held every word
+    public Puzzle generate(List<String> words) {
+        return search(words, null);
+    } // end generate
+
+    // pre: words is not empty
+    // post: as above, with every size attempted using a random source
+    // derived from seed and the size
+    public Puzzle generate(List<String> words, long seed) {
+        return search(words, seed);
+    } // end generate
+
+    // post: smallest complete puzzle found has been returned
+    private Puzzle search(List<String> words, Long seed) {
+        // lengths as placed, after the alphabet normalized the words
+        Alphabet alphabet = engine.getFiller().getLetters().getAlphabet();
+        int lo = WordSearchGenerator.longestLength(words, alphabet);
+        // every word fits in a single row of this size
+        int limit = 0;
+        for (String word : words) {
+            limit += alphabet.normalize(word).length();
+        } // end for
+        limit = Math.max(limit, lo);
+
+        // grow grid until every word is placed
+        int extra = engine.getSize().getSize();
+        Puzzle best = attempt(words, Math.min(lo + extra, limit), seed);
+        while (!best.isComplete() && best.getDimensions() < limit) {
+            extra = extra * 2 + 1;
+            best = attempt(words, Math.min(lo + extra, limit), seed);
+        } // end while
+        if (!best.isComplete()) {
+            return best;
+        } // end if
+        int hi = best.getDimensions();
+
+        if (threads == 1) {
+            // binary search, assuming a size which fails means every
+            // smaller size fails too
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                Puzzle puzzle = attempt(words, mid, seed);
+                if (puzzle.isComplete()) {
+                    best = puzzle;
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                } // end if/else
+            } // end while
+            return best;
+        } // end if
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            while (lo < hi) {
+                // spread one attempt per thread over [lo, hi)
+                int span = hi - lo;
+                int k = Math.min(threads, span);
+                CompletionService<Puzzle> service = new ExecutorCompletionService<>(pool);
+                List<Future<Puzzle>> futures = new ArrayList<>();
+                int[] sizes = new int[k];
+                for (int i = 0; i < k; i++) {
+                    int dimensions = lo + (int) ((long) span * i / k);
+                    sizes[i] = dimensions;
+                    futures.add(service.submit(() -> attempt(words, dimensions, seed)));
+                } // end for
+
+                int highestFailure = lo - 1;
+                for (int done = 0; done < k; done++) {
+                    Puzzle puzzle;
+                    try {
+                        puzzle = service.take().get();
+                    } catch (CancellationException e) {
+                        continue; // a smaller size already succeeded
+                    } // end try/catch
+                    int dimensions = puzzle.getDimensions();
+                    if (puzzle.isComplete()) {
+                        if (dimensions < hi) {
+                            best = puzzle;
+                            hi = dimensions;
+                            // larger attempts can no longer improve on best
+                            for (int i = 0; i < k; i++) {
+                                if (sizes[i] > dimensions) {
+                                    futures.get(i).cancel(true);
+                                } // end if
+                            } // end for
+                        } // end if
+                    } else {
+                        highestFailure = Math.max(highestFailure, dimensions);
+                    } // end if/else
+                } // end for
+                lo = Math.max(lo, Math.min(highestFailure + 1, hi));
+            } // end while
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("compact search failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        } // end try/catch/finally
+        return best;
+    } // end search
+
+    // post: puzzle of dimensions x dimensions has been generated, seeded
+    // from seed and dimensions if seed is not null
+    private Puzzle attempt(List<String> words, int dimensions, Long seed) {
+        RandomGenerator rand = seed == null ? ThreadLocalRandom.current()
+                : new SplittableRandom(seedFor(seed, dimensions));
+        return engine.generate(words, dimensions, rand);
+    } // end attempt
+
+    // post: seed of the attempt at dimensions has been returned - seed is
+    // hashed before dimensions is added and the sum hashed again, so
+    // neighbouring seeds and sizes give unrelated streams, where a linear
+    // mix such as seed * 31 + dimensions gave seed s at size n + 31 the
+    // stream of seed s + 1 at size n
+    static long seedFor(long seed, int dimensions) {
+        return mix64(mix64(seed) + dimensions);
+    } // end seedFor
+
+    // post: z has been scrambled by the 64 bit finalizer SplittableRandom
+    // also uses, a bijection in which every input bit affects every output
+    // bit
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    } // end mix64
+} // end CompactSearch class
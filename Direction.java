@@ -0,0 +1,78 @@
+// Word Search Generator
+// Direction - the eight directions a word may be read in
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+// begin Direction enum - a reading direction as a (dx, dy) step between
+// consecutive letters, with y growing downwards; opposite directions are
+// four places apart, so a word read backwards is the same word placed in
+// the reverse direction
+public enum Direction {
+    EAST(1, 0),
+    SOUTH_EAST(1, 1),
+    SOUTH(0, 1),
+    SOUTH_WEST(-1, 1),
+    WEST(-1, 0),
+    NORTH_WEST(-1, -1),
+    NORTH(0, -1),
+    NORTH_EAST(1, -1);
+
+    // values() clones its array on every call
+    private static final Direction[] VALUES = values();
+
+    private final int dx;
+    private final int dy;
+
+    // begin constructor
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    } // end constructor
+
+    // get methods for the column and row step
+    public int getDx() {
+        return dx;
+    } // end getDx
+    public int getDy() {
+        return dy;
+    } // end getDy
+
+    // post: direction reading the same cells backwards has been returned
+    public Direction reverse() {
+        return VALUES[(ordinal() + 4) & 7];
+    } // end reverse
+
+    // post: step between consecutive letters in a flat grid of width
+    // columns has been returned
+    public int step(int width) {
+        return dy * width + dx;
+    } // end step
+
+    // post: method has returned true if a word of length letters starting
+    // at column x, row y stays inside a width x height grid - both ends
+    // are checked with no branches, as a word is a straight line
+    public boolean fits(int x, int y, int length, int width, int height) {
+        int endX = x + dx * (length - 1);
+        int endY = y + dy * (length - 1);
+        return (x | y | endX | endY) >= 0
+                & x < width & endX < width & y < height & endY < height;
+    } // end fits
+
+    // post: smallest column a word of length letters may start in has
+    // been returned, the start column range is firstX to firstX + spanX - 1
+    public int firstX(int length) {
+        return Math.max(0, -dx * (length - 1));
+    } // end firstX
+    public int firstY(int length) {
+        return Math.max(0, -dy * (length - 1));
+    } // end firstY
+
+    // post: number of columns a word of length letters may start in within
+    // a grid of width columns has been returned, 0 or less if none
+    public int spanX(int length, int width) {
+        return width - Math.abs(dx) * (length - 1);
+    } // end spanX
+    public int spanY(int length, int height) {
+        return height - Math.abs(dy) * (length - 1);
+    } // end spanY
+} // end Direction enum
@@ -0,0 +1,147 @@
+// Word Search Generator
+// DirectionWeights - how often each direction is chosen
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+// begin DirectionWeights class - relative weight of every Direction when
+// a word's direction is drawn at random; a direction of weight 0 is never
+// used, so the weights also select which directions a puzzle may contain
+public final class DirectionWeights {
+    // values() clones its array on every call - declared before the
+    // constants below, whose constructors read it
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // forward reading directions twice as often as backwards ones, as in
+    // earlier versions which reversed every third word
+    public static final DirectionWeights CLASSIC = new DirectionWeights(
+            2, 2, 2, 0, 1, 1, 1, 0);
+    // every direction, including both anti-diagonals, equally often
+    public static final DirectionWeights ALL = new DirectionWeights(
+            1, 1, 1, 1, 1, 1, 1, 1);
+    // only left to right, top to bottom and down-right, for young solvers
+    public static final DirectionWeights FORWARD = new DirectionWeights(
+            1, 1, 1, 0, 0, 0, 0, 0);
+
+    private final int[] weights;
+    // running totals of weights, so a draw is a search of this array
+    private final int[] cumulative;
+    // directions of positive weight in Direction order
+    private final Direction[] enabled;
+
+    // begin constructor - weights are given in Direction order, EAST first
+    public DirectionWeights(int... weights) {
+        if (weights.length != DIRECTIONS.length) {
+            throw new IllegalArgumentException("expected "
+                    + DIRECTIONS.length + " weights");
+        } // end if
+        this.weights = weights.clone();
+        this.cumulative = new int[weights.length];
+        int total = 0;
+        int count = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("weights must not be negative");
+            } // end if
+            total = Math.addExact(total, weights[i]);
+            cumulative[i] = total;
+            if (weights[i] > 0) {
+                count++;
+            } // end if
+        } // end for
+        if (total == 0) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        } // end if
+        this.enabled = new Direction[count];
+        int n = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (weights[direction.ordinal()] > 0) {
+                enabled[n++] = direction;
+            } // end if
+        } // end for
+    } // end constructor
+
+    // pre: spec is classic, all, forward or a comma separated list of
+    // direction=weight pairs such as east=3,south=1, where directions not
+    // listed get weight 0
+    // post: weights described by spec have been returned
+    public static DirectionWeights parse(String spec) {
+        switch (spec.toLowerCase(Locale.ROOT)) {
+            case "classic":
+                return CLASSIC;
+            case "all":
+                return ALL;
+            case "forward":
+                return FORWARD;
+            default:
+                int[] weights = new int[DIRECTIONS.length];
+                for (String pair : spec.split(",")) {
+                    String[] parts = pair.split("=");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("expected direction=weight: "
+                                + pair);
+                    } // end if
+                    Direction direction = Direction.valueOf(
+                            parts[0].trim().toUpperCase(Locale.ROOT));
+                    weights[direction.ordinal()] = Integer.parseInt(parts[1].trim());
+                } // end for
+                return new DirectionWeights(weights);
+        } // end switch
+    } // end parse
+
+    // post: direction has been drawn with probability proportional to its
+    // weight
+    public Direction pick(RandomGenerator rand) {
+        int r = rand.nextInt(cumulative[cumulative.length - 1]);
+        int i = 0;
+        while (cumulative[i] <= r) {
+            i++;
+        } // end while
+        return DIRECTIONS[i];
+    } // end pick
+
+    // post: weight of direction has been returned
+    public int getWeight(Direction direction) {
+        return weights[direction.ordinal()];
+    } // end getWeight
+
+    // post: directions of positive weight have been returned in Direction
+    // order - the array is shared and must not be modified
+    Direction[] enabled() {
+        return enabled;
+    } // end enabled
+
+    // post: method has returned true if direction has positive weight
+    public boolean isEnabled(Direction direction) {
+        return weights[direction.ordinal()] > 0;
+    } // end isEnabled
+
+    // equals method
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DirectionWeights
+                && Arrays.equals(weights, ((DirectionWeights) o).weights);
+    } // end equals
+
+    // hashCode method
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    } // end hashCode
+
+    // toString method
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Direction direction : DIRECTIONS) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            } // end if
+            sb.append(direction.name().toLowerCase(Locale.ROOT)).append('=')
+                    .append(weights[direction.ordinal()]);
+        } // end for
+        return sb.toString();
+    } // end toString
+} // end DirectionWeights class
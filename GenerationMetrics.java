@@ -0,0 +1,45 @@
+// Word Search Generator
+// GenerationMetrics - receives events from puzzle generation
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+// begin GenerationMetrics interface - told how every word was placed and
+// how long every puzzle took, so word lists which make the generator
+// retry more can be spotted; MetricsRecorder keeps counters and
+// histograms of these events and exposes them over JMX
+//
+// the generator counts path checks in plain fields and reports them once
+// per puzzle, and only reads the clock and counts word cells when metrics
+// are not NONE, so disabled metrics cost next to nothing; implementations
+// may be called from many generator threads at once
+public interface GenerationMetrics {
+    // metrics which ignore every event
+    GenerationMetrics NONE = new GenerationMetrics() {
+        public void wordPlaced(boolean crossed, int randomAttempts) {
+        } // end wordPlaced
+        public void wordFailed(String word, int randomAttempts) {
+        } // end wordFailed
+        public void puzzleGenerated(long nanos, long pathChecks, long pathRejections,
+                                    int cells, int wordCells) {
+        } // end puzzleGenerated
+    };
+
+    // post: a word has been placed, crossing a word already in the grid
+    // if crossed is true, otherwise at a random point after randomAttempts
+    // points were tried - the backtracking search draws a placement from
+    // a shuffled list and reports 1; the heuristic's first word, put in a
+    // corner, is not reported
+    void wordPlaced(boolean crossed, int randomAttempts);
+
+    // post: word could not be placed, neither crossing another word nor at
+    // any of randomAttempts random points - 0 for a word never tried at
+    // random, as one the backtracking search found no room for or one
+    // skipped once the generating thread was interrupted
+    void wordFailed(String word, int randomAttempts);
+
+    // post: a puzzle has been generated in nanos nanoseconds, placement
+    // checked pathChecks paths of which pathRejections were blocked, and
+    // wordCells of the grid's cells belong to a word
+    void puzzleGenerated(long nanos, long pathChecks, long pathRejections,
+                         int cells, int wordCells);
+} // end GenerationMetrics interface
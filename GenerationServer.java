@@ -0,0 +1,497 @@
+// Word Search Generator
+// GenerationServer - long-running HTTP endpoint for generate and solve
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// begin GenerationServer class - keeps one JVM, warmed up, serving
+// puzzles over HTTP on the loopback interface, so callers stop paying JVM
+// startup and JIT warm-up on every puzzle
+//
+//     POST /generate?size=SMALL|MEDIUM|LARGE&seed=n&format=text|csv|json
+//          &solution=true      body: words separated by white space
+//     POST /solve?words=CAT,DOG        body: grid as read by PuzzleSolver
+//     GET  /metrics                    GET /health
+//
+// a request with more than MAX_WORDS words or a word over MAX_WORD_LENGTH
+// letters is answered with 400 before it is queued.
+// handler threads only parse a request and put it on a bounded queue; a
+// full queue is answered at once with 503 and Retry-After, so a burst
+// slows callers down instead of piling up work. Worker threads take a
+// request and drain whatever else is waiting, up to maxBatch, and serve
+// the batch together: identical seeded puzzles in a batch are generated
+// once, and seeded puzzles are kept in a PuzzleCache. Responses are sent
+// from the worker, so no thread blocks waiting for a result.
+public class GenerationServer {
+    // largest request body accepted, in bytes
+    private static final int MAX_BODY = 1 << 20;
+    // most words accepted in one request
+    private static final int MAX_WORDS = 1_000;
+    // longest word accepted - a generated grid is as wide as the longest
+    // word plus the size margin, so this also bounds its cells
+    private static final int MAX_WORD_LENGTH = 50;
+    // seeded puzzles kept in memory
+    private static final int CACHE_ENTRIES = 4_096;
+    // longest a worker waits for a request before checking it should stop
+    private static final long POLL_MILLIS = 100;
+    // words of the puzzles generated before the server starts listening
+    private static final List<String> WARM_UP_WORDS = List.of("ANIMAL", "BRIDGE",
+            "CANDLE", "DRAGON", "ELEVEN", "FOREST", "GARDEN", "HARBOR", "ISLAND",
+            "JUNGLE", "KETTLE", "LEMON", "MARBLE", "NUTMEG", "ORANGE", "PEPPER");
+
+    private final HttpServer http;
+    private final ExecutorService handlers;
+    private final BlockingQueue<Request> queue;
+    private final Thread[] workers;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final Map<Size, PuzzleEngine> engines = new EnumMap<>(Size.class);
+    // alphabet of the filler, the letters words may be spelled with
+    private final Alphabet alphabet;
+    private final PuzzleCache cache = new PuzzleCache(CACHE_ENTRIES);
+    private final MetricsRecorder metrics = new MetricsRecorder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile boolean running;
+
+    // begin Request class - one queued request, answered through exchange
+    // when the worker serving it is done
+    private abstract static class Request {
+        final HttpExchange exchange;
+
+        // begin constructor
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+        } // end constructor
+
+        // post: response body has been computed and returned, reusing
+        // puzzles generated earlier in the same batch
+        abstract String serve(Map<PuzzleKey, Puzzle> batch) throws IOException;
+
+        // post: media type of the response body has been returned
+        String contentType() {
+            return "text/plain";
+        } // end contentType
+    } // end Request class
+
+    // begin GenerateRequest class - a puzzle of words
+    private final class GenerateRequest extends Request {
+        private final PuzzleEngine engine;
+        private final List<String> words;
+        private final Long seed; // null for a random puzzle
+        private final PuzzleRenderer.Format format;
+        private final boolean solution;
+
+        // begin constructor
+        GenerateRequest(HttpExchange exchange, PuzzleEngine engine, List<String> words,
+                        Long seed, PuzzleRenderer.Format format, boolean solution) {
+            super(exchange);
+            this.engine = engine;
+            this.words = words;
+            this.seed = seed;
+            this.format = format;
+            this.solution = solution;
+        } // end constructor
+
+        // post: puzzle has been generated, or found in the batch or cache,
+        // and rendered
+        String serve(Map<PuzzleKey, Puzzle> batch) throws IOException {
+            Puzzle puzzle;
+            if (seed == null) {
+                puzzle = engine.generate(words);
+            } else {
+                PuzzleKey key = engine.key(words, seed);
+                puzzle = batch.get(key);
+                if (puzzle == null) {
+                    puzzle = cache.generate(engine, words, seed);
+                    batch.put(key, puzzle);
+                } // end if
+            } // end if/else
+            return new PuzzleRenderer(format).render(puzzle, solution).toString();
+        } // end serve
+
+        // post: media type of the rendered puzzle has been returned
+        String contentType() {
+            return format.getContentType();
+        } // end contentType
+    } // end GenerateRequest class
+
+    // begin SolveRequest class - words to find in a grid
+    private static final class SolveRequest extends Request {
+        private final Grid grid;
+        private final List<String> words;
+
+        // begin constructor
+        SolveRequest(HttpExchange exchange, Grid grid, List<String> words) {
+            super(exchange);
+            this.grid = grid;
+            this.words = words;
+        } // end constructor
+
+        // post: every occurrence of the words has been found and reported
+        String serve(Map<PuzzleKey, Puzzle> batch) {
+            return PuzzleSolver.report(new PuzzleSolver(words).solve(grid), words);
+        } // end serve
+    } // end SolveRequest class
+
+    // pre: port is free on the loopback interface, or 0 for any free port
+    // begin constructor - threads workers serve a queue of queueCapacity
+    // requests, taking up to maxBatch at a time and waiting up to
+    // lingerMillis for a batch to fill, 0 to serve what is already queued
+    public GenerationServer(int port, int threads, int queueCapacity, int maxBatch,
+                            long lingerMillis, DirectionWeights directions,
+                            GridFiller filler) throws IOException {
+        if (threads < 1 || queueCapacity < 1 || maxBatch < 1 || lingerMillis < 0) {
+            throw new IllegalArgumentException("threads, queue and batch must be positive");
+        } // end if
+        for (Size size : Size.values()) {
+            engines.put(size, new PuzzleEngine(size, null, WordOrder.LENGTH_DESCENDING,
+                    directions, filler, metrics));
+        } // end for
+        this.alphabet = filler.getLetters().getAlphabet();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.workers = new Thread[threads];
+        this.http = HttpServer.create(new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), port), 0);
+        // parsing is quick, a couple of threads keep up with the workers
+        this.handlers = Executors.newFixedThreadPool(2);
+        http.setExecutor(handlers);
+        http.createContext("/generate", exchange -> handle(exchange, this::parseGenerate));
+        http.createContext("/solve", exchange -> handle(exchange, this::parseSolve));
+        http.createContext("/metrics", exchange -> respond(exchange, 200, describe()));
+        http.createContext("/health", exchange -> respond(exchange, 200, "ok\n"));
+    } // end constructor
+
+    // post: warmUp puzzles have been generated to warm up the JIT, then
+    // the workers have been started and the server is listening
+    public void start(int warmUp) {
+        PuzzleEngine engine = engines.get(Size.MEDIUM).withMetrics(GenerationMetrics.NONE);
+        PuzzleRenderer renderer = new PuzzleRenderer(PuzzleRenderer.Format.JSON);
+        for (int i = 0; i < warmUp; i++) {
+            renderer.render(engine.generate(WARM_UP_WORDS, i), true);
+        } // end for
+        running = true;
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "generation-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        } // end for
+        http.start();
+    } // end start
+
+    // post: workers have finished their batches, requests still queued
+    // have been answered with 503 and the server has stopped listening
+    public void stop() {
+        // new requests are turned away from here on
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                if (worker != null) {
+                    worker.join();
+                } // end if
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } // end try/catch
+        } // end for
+        List<Request> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Request request : left) {
+            respond(request.exchange, 503, "server stopping\n");
+        } // end for
+        http.stop(1);
+        handlers.shutdown();
+    } // end stop
+
+    // post: port the server listens on has been returned
+    public int getPort() {
+        return http.getAddress().getPort();
+    } // end getPort
+
+    // post: metrics of every puzzle generated for a request have been
+    // returned
+    public MetricsRecorder getMetrics() {
+        return metrics;
+    } // end getMetrics
+
+    // begin Parser interface - turns an exchange into a request
+    private interface Parser {
+        // post: request has been returned, IllegalArgumentException thrown
+        // if it is malformed
+        Request parse(HttpExchange exchange, Map<String, String> query, String body)
+                throws IOException;
+    } // end Parser interface
+
+    // post: exchange has been parsed by parser and queued, or answered at
+    // once if it is malformed or the queue is full
+    private void handle(HttpExchange exchange, Parser parser) {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "use POST\n");
+                return;
+            } // end if
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "request body over " + MAX_BODY + " bytes\n");
+                return;
+            } // end if
+            Request request = parser.parse(exchange,
+                    parseQuery(exchange.getRequestURI().getRawQuery()), body);
+            if (!running || !queue.offer(request)) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, "server busy, retry later\n");
+                return;
+            } // end if
+            accepted.increment();
+        } catch (IllegalArgumentException | IOException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+        } // end try/catch
+    } // end handle
+
+    // post: generate request has been parsed from query and body
+    private Request parseGenerate(HttpExchange exchange, Map<String, String> query,
+                                  String body) {
+        Size size = Size.valueOf(query.getOrDefault("size", "MEDIUM").toUpperCase(Locale.ROOT));
+        Long seed = query.containsKey("seed") ? Long.valueOf(query.get("seed")) : null;
+        PuzzleRenderer.Format format = PuzzleRenderer.Format.valueOf(
+                query.getOrDefault("format", "TEXT").toUpperCase(Locale.ROOT));
+        boolean solution = Boolean.parseBoolean(query.get("solution"));
+        return new GenerateRequest(exchange, engines.get(size), parseWords(body),
+                seed, format, solution);
+    } // end parseGenerate
+
+    // post: solve request has been parsed from query and body
+    private Request parseSolve(HttpExchange exchange, Map<String, String> query,
+                               String body) throws IOException {
+        List<String> words = parseWords(query.getOrDefault("words", "").replace(',', ' '));
+        Grid grid = PuzzleSolver.readGrid(new BufferedReader(new StringReader(body)),
+                "request body");
+        return new SolveRequest(exchange, grid, words);
+    } // end parseSolve
+
+    // post: words of text normalized by the alphabet have been returned
+    private List<String> parseWords(String text) {
+        List<String> words = new ArrayList<>();
+        for (String token : text.trim().split("\\s+")) {
+            if (token.isEmpty()) {
+                continue;
+            } // end if
+            String word = alphabet.normalize(token);
+            if (!alphabet.contains(word)) {
+                throw new IllegalArgumentException("not a word: " + token);
+            } // end if
+            if (word.length() > MAX_WORD_LENGTH) {
+                throw new IllegalArgumentException("words must be at most "
+                        + MAX_WORD_LENGTH + " letters");
+            } // end if
+            words.add(word);
+        } // end for
+        if (words.isEmpty() || words.size() > MAX_WORDS) {
+            throw new IllegalArgumentException("expected 1 to " + MAX_WORDS + " words");
+        } // end if
+        return words;
+    } // end parseWords
+
+    // post: parameters of a raw query string have been decoded and
+    // returned, later repeats replacing earlier ones
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        } // end if
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        } // end for
+        return parameters;
+    } // end parseQuery
+
+    // post: body has been read as UTF-8 and returned, null if it is longer
+    // than MAX_BODY
+    private static String readBody(InputStream body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (bytes.size() + read > MAX_BODY) {
+                return null;
+            } // end if
+            bytes.write(buffer, 0, read);
+        } // end while
+        return bytes.toString(StandardCharsets.UTF_8);
+    } // end readBody
+
+    // post: requests have been taken from the queue in batches and served
+    // until the server stops - workers poll rather than being interrupted,
+    // as an interrupt would also close the channel a response is written to.
+    // Anything a request throws, errors included, is answered with 500 and
+    // the worker goes on to the next one, so no failure can take a worker
+    // away and leave the queue to fill up.
+    private void work() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        Map<PuzzleKey, Puzzle> puzzles = new HashMap<>();
+        while (running) {
+            try {
+                Request first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue; // check running again
+                } // end if
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() == maxBatch || wait <= 0) {
+                        break;
+                    } // end if
+                    Request next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    } // end if
+                    batch.add(next);
+                } // end while
+            } catch (InterruptedException e) {
+                // not expected, serve what was already taken and stop
+                running = false;
+            } // end try/catch
+            batches.increment();
+            for (Request request : batch) {
+                try {
+                    respond(request.exchange, 200, request.contentType(),
+                            request.serve(puzzles));
+                } catch (Throwable e) {
+                    respond(request.exchange, 500, e + "\n");
+                } // end try/catch
+            } // end for
+            batch.clear();
+            puzzles.clear();
+        } // end while
+    } // end work
+
+    // post: plain text body has been sent with status, errors writing it
+    // ignored as the client has gone
+    private static void respond(HttpExchange exchange, int status, String body) {
+        respond(exchange, status, "text/plain", body);
+    } // end respond
+
+    // post: body of media type contentType has been sent with status,
+    // errors writing it ignored as the client has gone
+    private static void respond(HttpExchange exchange, int status, String contentType,
+                                String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream output = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type",
+                    contentType + "; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            output.write(bytes);
+        } catch (IOException e) {
+            // nothing more can be said to this client
+        } // end try/catch
+    } // end respond
+
+    // post: queue, batch and generation figures have been returned
+    private String describe() {
+        long served = accepted.sum();
+        long taken = batches.sum();
+        return String.format("%d requests accepted, %d rejected, %d queued, "
+                + "%d batches of %.2f on average%ncache: %d hits, %d misses%n%s%n",
+                served, rejected.sum(), queue.size(), taken,
+                taken == 0 ? 0.0 : (double) served / taken, cache.getHits(),
+                cache.getMisses(), metrics);
+    } // end describe
+
+    // pre: args = [--port n] [--threads n] [--queue n] [--batch n]
+    //   [--linger-ms n] [--warm-up n] [--directions weights]
+    //   [--fill distribution]
+    // post: server has been started and runs until the JVM is stopped
+    public static void run(String[] args) throws IOException {
+        String usage = "usage: server [--port n] [--threads n] [--queue n] [--batch n] "
+                + "[--linger-ms n] [--warm-up n] [--directions classic|all|forward|"
+                + "east=n,...] [--fill uniform|english|spanish|german|greek|russian]";
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueCapacity = 256;
+        int maxBatch = 16;
+        long linger = 0;
+        int warmUp = 500;
+        DirectionWeights directions = DirectionWeights.CLASSIC;
+        LetterDistribution fill = LetterDistribution.UNIFORM;
+        try {
+            // options come in pairs
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    System.err.println(usage);
+                    return;
+                } // end if
+                String value = args[i + 1];
+                if (args[i].equals("--port")) {
+                    port = Integer.parseInt(value);
+                } else if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(value);
+                } else if (args[i].equals("--queue")) {
+                    queueCapacity = Integer.parseInt(value);
+                } else if (args[i].equals("--batch")) {
+                    maxBatch = Integer.parseInt(value);
+                } else if (args[i].equals("--linger-ms")) {
+                    linger = Long.parseLong(value);
+                } else if (args[i].equals("--warm-up")) {
+                    warmUp = Integer.parseInt(value);
+                } else if (args[i].equals("--directions")) {
+                    directions = DirectionWeights.parse(value);
+                } else if (args[i].equals("--fill")) {
+                    fill = LetterDistribution.forName(value);
+                } else {
+                    System.err.println(usage);
+                    return;
+                } // end if/else
+            } // end for
+        } catch (IllegalArgumentException e) {
+            System.err.println(usage);
+            return;
+        } // end try/catch
+
+        GenerationServer server = new GenerationServer(port, threads, queueCapacity,
+                maxBatch, linger, directions, new GridFiller(fill, List.of()));
+        long start = System.nanoTime();
+        server.start(warmUp);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.printf("Warmed up in %d ms, listening on http://%s:%d/ with "
+                + "%d workers%n", (System.nanoTime() - start) / 1_000_000,
+                InetAddress.getLoopbackAddress().getHostAddress(), server.getPort(),
+                threads);
+        System.out.println("Endpoints: " + Arrays.asList("POST /generate", "POST /solve",
+                "GET /metrics", "GET /health"));
+    } // end run
+} // end GenerationServer class
@@ -0,0 +1,350 @@
+// Word Search Generator
+// Grid - flat character grid with a solution bitmask overlay
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+
+// begin Grid class - stores a width x height grid of characters in a
+// single flat array, row after row, so cell (x, y) lives at index
+// y * width + x; cells which belong to a placed word are flagged in a
+// bitmask so the solution never needs a second copy of the grid
+//
+// each cell holds a one byte code rather than a char: 0 for EMPTY, then
+// the codes of the grid's Alphabet, then any other character written, up
+// to MAX_SYMBOLS in all, numbered as it is first seen. Letters of the
+// alphabet, the usual case, are coded in one lookup
+//
+// very large grids may instead keep their cells in TiledCells, which
+// allocates memory only for the tiles words are written to and can keep
+// it outside the Java heap; flat indexes work the same either way
+//
+// a shaped grid follows a GridMask: cells outside the shape hold HOLE,
+// which no word contains, so checking a path or reading a line stops at
+// a hole without asking the mask, and placements are checked against the
+// mask's run tables in one lookup by fits
+public final class Grid {
+    // value of a cell which has not been written
+    public static final char EMPTY = 0;
+    // value of a cell outside the shape of a masked grid, never written
+    public static final char HOLE = ' ';
+    // most distinct codes a grid can hold, EMPTY included
+    public static final int MAX_SYMBOLS = 256;
+
+    private final int width;
+    private final int height;
+    private final int size;
+    private final Alphabet alphabet;
+    // character of every code - the alphabet's own table until a
+    // character outside it is written, then a copy of MAX_SYMBOLS
+    private char[] symbols;
+    private int symbolCount;
+    // dense storage, null when the grid is tiled
+    private final byte[] cells;
+    // one bit per cell, set when the cell is part of a placed word
+    private final long[] wordCells;
+    // tiled storage, null when the grid is dense
+    private final TiledCells tiles;
+    // shape of the grid, null if every cell belongs to it
+    private final GridMask mask;
+
+    // begin constructor - every cell starts EMPTY
+    public Grid(int width, int height) {
+        this(width, height, Alphabet.LATIN);
+    } // end constructor
+
+    // constructor - letters of alphabet are coded in one lookup
+    public Grid(int width, int height, Alphabet alphabet) {
+        this(width, height, false, false, null, alphabet);
+    } // end constructor
+
+    // constructor - grid of the size of mask, whose cells inside the
+    // shape start EMPTY and whose others are HOLE
+    public Grid(GridMask mask) {
+        this(mask, Alphabet.LATIN);
+    } // end constructor
+
+    // constructor - as above, letters of alphabet coded in one lookup
+    public Grid(GridMask mask, Alphabet alphabet) {
+        this(mask.getWidth(), mask.getHeight(), false, false, mask, alphabet);
+        Arrays.fill(cells, code(HOLE));
+        for (int i = 0; i < mask.getCells(); i++) {
+            cells[mask.cell(i)] = 0;
+        } // end for
+    } // end constructor
+
+    // constructor - cells are kept in lazily allocated tiles if tiled is
+    // true, in direct memory outside the heap if offHeap is also true
+    private Grid(int width, int height, boolean tiled, boolean offHeap, GridMask mask,
+                 Alphabet alphabet) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("grid must be at least 1 x 1");
+        } // end if
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("grid of " + width + " x " + height
+                    + " has more than " + Integer.MAX_VALUE + " cells");
+        } // end if
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+        this.alphabet = alphabet;
+        this.symbols = alphabet.symbols();
+        this.symbolCount = symbols.length;
+        this.cells = tiled ? null : new byte[size];
+        this.wordCells = tiled ? null : new long[(size + 63) >>> 6];
+        this.tiles = tiled ? new TiledCells(width, height, offHeap) : null;
+        this.mask = mask;
+    } // end constructor
+
+    // copy constructor
+    private Grid(Grid other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.size = other.size;
+        this.alphabet = other.alphabet;
+        this.symbols = other.ownSymbols() ? other.symbols.clone() : other.symbols;
+        this.symbolCount = other.symbolCount;
+        this.cells = other.cells == null ? null : other.cells.clone();
+        this.wordCells = other.wordCells == null ? null : other.wordCells.clone();
+        this.tiles = other.tiles == null ? null : other.tiles.copy();
+        this.mask = other.mask;
+    } // end copy constructor
+
+    // post: empty grid storing its cells in tiles, allocated as they are
+    // written, has been returned - tiles are kept outside the Java heap
+    // if offHeap is true
+    public static Grid tiled(int width, int height, boolean offHeap) {
+        return tiled(width, height, offHeap, Alphabet.LATIN);
+    } // end tiled
+
+    // post: as above, letters of alphabet coded in one lookup
+    public static Grid tiled(int width, int height, boolean offHeap, Alphabet alphabet) {
+        return new Grid(width, height, true, offHeap, null, alphabet);
+    } // end tiled
+
+    // post: alphabet whose letters are coded in one lookup has been
+    // returned
+    public Alphabet getAlphabet() {
+        return alphabet;
+    } // end getAlphabet
+
+    // post: method has returned true if symbols is this grid's own copy
+    // rather than its alphabet's table
+    private boolean ownSymbols() {
+        return symbols != alphabet.symbols();
+    } // end ownSymbols
+
+    // post: code of c has been returned, a new code given to a character
+    // outside the alphabet the first time it is written
+    private byte code(char c) {
+        int code = alphabet.code(c);
+        if (code != 0 || c == EMPTY) {
+            return (byte) code;
+        } // end if
+        for (int i = alphabet.size() + 1; i < symbolCount; i++) {
+            if (symbols[i] == c) {
+                return (byte) i;
+            } // end if
+        } // end for
+        if (symbolCount == MAX_SYMBOLS) {
+            throw new IllegalArgumentException("grid holds more than "
+                    + (MAX_SYMBOLS - 1) + " distinct characters");
+        } // end if
+        if (!ownSymbols()) {
+            symbols = Arrays.copyOf(symbols, MAX_SYMBOLS);
+        } // end if
+        symbols[symbolCount] = c;
+        return (byte) symbolCount++;
+    } // end code
+
+    // post: method has returned true if cells are kept in tiles
+    public boolean isTiled() {
+        return tiles != null;
+    } // end isTiled
+
+    // post: mask of a shaped grid has been returned, null if every cell
+    // belongs to the grid
+    public GridMask getMask() {
+        return mask;
+    } // end getMask
+
+    // post: independent copy of this grid has been returned
+    public Grid copy() {
+        return new Grid(this);
+    } // end copy
+
+    // get methods for grid size
+    public int getWidth() {
+        return width;
+    } // end getWidth
+    public int getHeight() {
+        return height;
+    } // end getHeight
+    public int size() {
+        return size;
+    } // end size
+
+    // post: method has returned true if column x, row y is inside the grid
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    } // end contains
+
+    // post: method has returned true if a word of length letters starting
+    // at column x, row y and read in direction stays inside the grid and,
+    // for a shaped grid, on its shape
+    public boolean fits(int x, int y, int length, Direction direction) {
+        return mask == null ? direction.fits(x, y, length, width, height)
+                : mask.fits(x, y, length, direction);
+    } // end fits
+
+    // pre: contains(x, y)
+    // post: flat index of column x, row y has been returned
+    public int index(int x, int y) {
+        return y * width + x;
+    } // end index
+
+    // pre: 0 <= index < size()
+    // post: character at flat index has been returned
+    public char get(int index) {
+        return symbols[(tiles == null ? cells[index] : tiles.get(index)) & 0xFF];
+    } // end get
+
+    // pre: contains(x, y)
+    // post: character at column x, row y has been returned
+    public char get(int x, int y) {
+        return symbols[(tiles == null ? cells[y * width + x] : tiles.get(x, y)) & 0xFF];
+    } // end get
+
+    // pre: 0 <= index < size()
+    // post: character at flat index has been replaced by c
+    public void set(int index, char c) {
+        if (tiles == null) {
+            cells[index] = code(c);
+        } else {
+            tiles.set(index, code(c));
+        } // end if/else
+    } // end set
+
+    // pre: 0 <= index < size()
+    // post: c has been written at flat index and the cell has been flagged
+    // as part of a word in the solution
+    public void setWordChar(int index, char c) {
+        if (tiles == null) {
+            cells[index] = code(c);
+            wordCells[index >>> 6] |= 1L << index;
+        } else {
+            tiles.set(index, code(c));
+            tiles.setWord(index, true);
+        } // end if/else
+    } // end setWordChar
+
+    // pre: 0 <= index < size()
+    // post: cell has been emptied and is no longer part of a placed word
+    public void clear(int index) {
+        if (tiles == null) {
+            cells[index] = 0;
+            wordCells[index >>> 6] &= ~(1L << index);
+        } else {
+            tiles.set(index, (byte) 0);
+            tiles.setWord(index, false);
+        } // end if/else
+    } // end clear
+
+    // pre: other has the same width, height, storage and alphabet as this
+    // grid
+    // post: every cell and word flag of other has been copied into this
+    // grid
+    public void copyFrom(Grid other) {
+        if (other.width != width || other.height != height
+                || (other.tiles == null) != (tiles == null)) {
+            throw new IllegalArgumentException("grid sizes differ");
+        } // end if
+        if (other.alphabet != alphabet) {
+            throw new IllegalArgumentException("grid alphabets differ");
+        } // end if
+        if (other.ownSymbols()) {
+            symbols = ownSymbols() ? symbols : new char[MAX_SYMBOLS];
+            System.arraycopy(other.symbols, 0, symbols, 0, other.symbolCount);
+        } else {
+            symbols = other.symbols;
+        } // end if/else
+        symbolCount = other.symbolCount;
+        if (tiles == null) {
+            System.arraycopy(other.cells, 0, cells, 0, cells.length);
+            System.arraycopy(other.wordCells, 0, wordCells, 0, wordCells.length);
+        } else {
+            tiles.copyFrom(other.tiles);
+        } // end if/else
+    } // end copyFrom
+
+    // pre: 0 <= index < size()
+    // post: method has returned true if cell is part of a placed word
+    public boolean isWordCell(int index) {
+        if (tiles != null) {
+            return tiles.isWord(index);
+        } // end if
+        return (wordCells[index >>> 6] & (1L << index)) != 0;
+    } // end isWordCell
+
+    // pre: contains(x, y)
+    // post: character of the solution at column x, row y has been
+    // returned, blank for cells which are not part of a placed word and
+    // HOLE for holes
+    public char getSolutionChar(int x, int y, char blank) {
+        int index = y * width + x;
+        char c = get(index);
+        return isWordCell(index) || c == HOLE ? c : blank;
+    } // end getSolutionChar
+
+    // post: number of cells which are part of a placed word has been
+    // returned
+    public int countWordCells() {
+        if (tiles != null) {
+            return tiles.countWords();
+        } // end if
+        int count = 0;
+        for (long bits : wordCells) {
+            count += Long.bitCount(bits);
+        } // end for
+        return count;
+    } // end countWordCells
+
+    // post: method has returned true if no cell has been written, holes
+    // aside
+    public boolean isEmpty() {
+        if (tiles != null) {
+            return tiles.isEmpty();
+        } // end if
+        for (byte code : cells) {
+            if (code != 0 && symbols[code & 0xFF] != HOLE) {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end isEmpty
+
+    // post: grid has been copied into a new 2 dimensional array indexed
+    // [row][column]
+    public char[][] toArray() {
+        char[][] result = new char[height][];
+        for (int y = 0; y < height; y++) {
+            result[y] = new char[width];
+            for (int x = 0; x < width; x++) {
+                result[y][x] = get(x, y);
+            } // end for
+        } // end for
+        return result;
+    } // end toArray
+
+    // post: solution has been copied into a new 2 dimensional array
+    // indexed [row][column] with blank in every cell outside a word
+    public char[][] toSolutionArray(char blank) {
+        char[][] result = new char[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                result[y][x] = getSolutionChar(x, y, blank);
+            } // end inner for
+        } // end outer for
+        return result;
+    } // end toSolutionArray
+} // end Grid class
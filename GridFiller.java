@@ -0,0 +1,349 @@
+// Word Search Generator
+// GridFiller - fills empty cells without spelling unintended words
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+// begin GridFiller class - fills the empty cells of a grid with letters
+// drawn from a LetterDistribution, rejecting any letter which would spell
+// a word of the puzzle or of a blocklist in any of the eight directions
+//
+// cells are filled one at a time, row by row, and a new word can only
+// appear through the cell just filled; the words are held in Aho-Corasick
+// WordAutomaton objects, as PuzzleSolver holds them, whose state along
+// each of the four lines through the cell is carried over from the cell
+// before on that line, so checking a letter costs one step per line
+// however long the words are, plus a walk over any placed cells right
+// after it. Words and their reverses are both in the automata, so reading
+// each line in one direction covers all eight. Placed words are left as
+// they are.
+//
+// a filler is immutable and may be shared between threads
+public final class GridFiller {
+    // letters from A to Z equally often, no blocklist
+    public static final GridFiller DEFAULT =
+            new GridFiller(LetterDistribution.UNIFORM, List.of());
+    // the four lines through a cell
+    private static final Direction[] AXES = {
+        Direction.EAST, Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST
+    };
+
+    private final LetterDistribution letters;
+    private final WordAutomaton blocklist;
+    // fingerprint of the blocklist for toString, so a PuzzleKey changes
+    // when the blocklist does
+    private final String blocklistId;
+
+    // begin constructor - blocked words are never spelled by the filler,
+    // whatever the puzzle
+    public GridFiller(LetterDistribution letters, Collection<String> blockedWords) {
+        this.letters = letters;
+        this.blocklist = link(blockedWords, letters.getAlphabet());
+        this.blocklistId = blockedWords.isEmpty() ? "none" : blockedWords.size() + ":"
+                + PuzzleKey.of("blocklist", new ArrayList<>(blockedWords), 0);
+    } // end constructor
+
+    // copy constructor sharing the blocklist
+    private GridFiller(LetterDistribution letters, WordAutomaton blocklist,
+                       String blocklistId) {
+        this.letters = letters;
+        this.blocklist = blocklist;
+        this.blocklistId = blocklistId;
+    } // end copy constructor
+
+    // post: filler identical to this one but drawing from letters has
+    // been returned - blocked words stay as the alphabet of the letters
+    // this filler was created with upper cased them
+    public GridFiller withLetters(LetterDistribution letters) {
+        return new GridFiller(letters, blocklist, blocklistId);
+    } // end withLetters
+
+    // post: every empty cell of grid has been filled, and the number of
+    // cells where every letter spelled a word of words or the blocklist,
+    // and which therefore hold one, has been returned
+    public int fill(Grid grid, List<String> words, RandomGenerator rand) {
+        WordAutomaton puzzleWords = link(words, letters.getAlphabet());
+        List<LineStates> automata = new ArrayList<>(2);
+        for (WordAutomaton automaton : new WordAutomaton[] {puzzleWords, blocklist}) {
+            if (!automaton.isEmpty()) {
+                automata.add(new LineStates(automaton, grid.getWidth()));
+            } // end if
+        } // end for
+        boolean[] excluded = new boolean[letters.size()];
+        int conflicts = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (LineStates states : automata) {
+                states.startRow();
+            } // end for
+            for (int x = 0; x < grid.getWidth(); x++) {
+                char c = grid.get(x, y);
+                if (c == Grid.EMPTY) {
+                    int choice = letters.pick(rand);
+                    c = letters.letterAt(choice);
+                    if (spellsWord(grid, x, y, c, automata)) {
+                        // draw again from the letters not yet tried
+                        Arrays.fill(excluded, false);
+                        boolean clear = false;
+                        for (int tried = 1; tried < excluded.length && !clear; tried++) {
+                            excluded[choice] = true;
+                            choice = letters.pick(rand, excluded);
+                            c = letters.letterAt(choice);
+                            clear = !spellsWord(grid, x, y, c, automata);
+                        } // end for
+                        if (!clear) {
+                            conflicts++;
+                        } // end if
+                    } // end if
+                    grid.set(grid.index(x, y), c);
+                } else {
+                    for (LineStates states : automata) {
+                        states.spells(grid, x, y, c, false);
+                    } // end for
+                } // end if/else
+                for (LineStates states : automata) {
+                    states.commit(x);
+                } // end for
+            } // end horizontal for
+        } // end vertical for
+        return conflicts;
+    } // end fill
+
+    // post: words and their reverses, normalized by alphabet, have been
+    // linked into the automaton fill and refill check puzzle words with -
+    // a word normalized to nothing is left out
+    static WordAutomaton link(Collection<String> words, Alphabet alphabet) {
+        List<String> patterns = new ArrayList<>(2 * words.size());
+        for (String word : words) {
+            String normalized = alphabet.normalize(word);
+            if (!normalized.isEmpty()) {
+                patterns.add(normalized);
+                patterns.add(new StringBuilder(normalized).reverse().toString());
+            } // end if
+        } // end for
+        return new WordAutomaton(patterns);
+    } // end link
+
+    // pre: every automaton of puzzleWords came from link
+    // post: the first count of cells which are empty have been filled in
+    // turn as fill would, each letter checked only along the four lines
+    // through its cell, and the number of cells holding a word anyway has
+    // been returned; cells already written are left as they are
+    int refill(Grid grid, WordAutomaton[] puzzleWords, int[] cells, int count,
+               RandomGenerator rand) {
+        boolean[] excluded = new boolean[letters.size()];
+        int conflicts = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = cells[i];
+            if (grid.get(cell) != Grid.EMPTY) {
+                continue;
+            } // end if
+            int choice = letters.pick(rand);
+            grid.set(cell, letters.letterAt(choice));
+            if (spelledThrough(grid, puzzleWords, cell, null)) {
+                // draw again from the letters not yet tried
+                Arrays.fill(excluded, false);
+                boolean clear = false;
+                for (int tried = 1; tried < excluded.length && !clear; tried++) {
+                    excluded[choice] = true;
+                    choice = letters.pick(rand, excluded);
+                    grid.set(cell, letters.letterAt(choice));
+                    clear = !spelledThrough(grid, puzzleWords, cell, null);
+                } // end for
+                if (!clear) {
+                    conflicts++;
+                } // end if
+            } // end if
+        } // end for
+        return conflicts;
+    } // end refill
+
+    // pre: every automaton of puzzleWords came from link, cell has been
+    // written
+    // post: method has returned true if a word of puzzleWords or the
+    // blocklist is spelled along one of the four lines through cell and
+    // covers it; unless action is null, every line has been read and each
+    // cell of every such word has been given to action, the longest word
+    // ending at a cell standing for the shorter ones inside it
+    boolean spelledThrough(Grid grid, WordAutomaton[] puzzleWords, int cell,
+                           IntConsumer action) {
+        boolean spelled = false;
+        for (int t = 0; t <= puzzleWords.length; t++) {
+            WordAutomaton automaton = t < puzzleWords.length ? puzzleWords[t] : blocklist;
+            if (automaton.isEmpty()) {
+                continue;
+            } // end if
+            for (Direction axis : AXES) {
+                spelled |= spelledAlong(grid, automaton, cell, axis, action);
+                if (spelled && action == null) {
+                    return true;
+                } // end if
+            } // end for
+        } // end for
+        return spelled;
+    } // end spelledThrough
+
+    // post: as spelledThrough, for one automaton along one axis - the line
+    // is read from as far back as a word through cell could start, over
+    // written cells only, to as far on as one could end
+    private static boolean spelledAlong(Grid grid, WordAutomaton automaton, int cell,
+                                        Direction axis, IntConsumer action) {
+        int x = cell % grid.getWidth();
+        int y = cell / grid.getWidth();
+        int dx = axis.getDx();
+        int dy = axis.getDy();
+        int reach = automaton.getMaxLength() - 1;
+        int back = 0;
+        while (back < reach && grid.contains(x - (back + 1) * dx, y - (back + 1) * dy)
+                && grid.get(x - (back + 1) * dx, y - (back + 1) * dy) != Grid.EMPTY) {
+            back++;
+        } // end while
+        boolean spelled = false;
+        int node = WordAutomaton.ROOT;
+        for (int j = -back; j <= reach; j++) {
+            int cx = x + j * dx;
+            int cy = y + j * dy;
+            if (!grid.contains(cx, cy) || grid.get(cx, cy) == Grid.EMPTY) {
+                break;
+            } // end if
+            node = automaton.step(node, grid.get(cx, cy));
+            // the longest word ending j cells on starts on or before cell
+            int length = automaton.longestMatch(node);
+            if (j >= 0 && length > j) {
+                spelled = true;
+                if (action == null) {
+                    return true;
+                } // end if
+                for (int k = j - length + 1; k <= j; k++) {
+                    action.accept(grid.index(x + k * dx, y + k * dy));
+                } // end for
+            } // end if
+        } // end for
+        return spelled;
+    } // end spelledAlong
+
+    // post: method has returned true if c at column x, row y would spell a
+    // word of any of automata through that cell; the states after c have
+    // been kept by every one of automata, ready to commit
+    private static boolean spellsWord(Grid grid, int x, int y, char c,
+                                      List<LineStates> automata) {
+        boolean spells = false;
+        for (LineStates states : automata) {
+            // every automaton must keep its states, so no short cut
+            spells |= states.spells(grid, x, y, c, true);
+        } // end for
+        return spells;
+    } // end spellsWord
+
+    // begin LineStates class - where one automaton stands on each of the
+    // four lines through the cell being filled: cells are visited row by
+    // row, so a line across needs one state, and lines down and diagonally
+    // down need one per column, those of the row above kept until the row
+    // is done
+    private static final class LineStates {
+        private final WordAutomaton automaton;
+        private final int width;
+        // state along the current row
+        private int across;
+        // state of each column down to the row above
+        private final int[] down;
+        // states of the diagonals down and right, and down and left, at
+        // each cell of the row above and of the current row; arrays start
+        // as WordAutomaton.ROOT, which is 0
+        private int[] downRight;
+        private int[] nextDownRight;
+        private int[] downLeft;
+        private int[] nextDownLeft;
+        // states after the cell being filled, one per axis
+        private final int[] pending = new int[AXES.length];
+
+        // begin constructor
+        LineStates(WordAutomaton automaton, int width) {
+            this.automaton = automaton;
+            this.width = width;
+            this.down = new int[width];
+            this.downRight = new int[width];
+            this.nextDownRight = new int[width];
+            this.downLeft = new int[width];
+            this.nextDownLeft = new int[width];
+        } // end constructor
+
+        // post: states of the row just done have become those of the row
+        // above, and the line across starts again
+        void startRow() {
+            int[] swap = downRight;
+            downRight = nextDownRight;
+            nextDownRight = swap;
+            swap = downLeft;
+            downLeft = nextDownLeft;
+            nextDownLeft = swap;
+            across = WordAutomaton.ROOT;
+        } // end startRow
+
+        // post: states after reading c at column x, row y have been kept
+        // as pending; if check is true, method has returned true if a word
+        // ending on or after that cell, over cells already filled, covers it
+        boolean spells(Grid grid, int x, int y, char c, boolean check) {
+            pending[0] = automaton.step(across, c);
+            pending[1] = automaton.step(x > 0 ? downRight[x - 1] : WordAutomaton.ROOT, c);
+            pending[2] = automaton.step(down[x], c);
+            pending[3] = automaton.step(x < width - 1 ? downLeft[x + 1]
+                    : WordAutomaton.ROOT, c);
+            if (!check) {
+                return false;
+            } // end if
+            for (int axis = 0; axis < AXES.length; axis++) {
+                if (spellsAhead(grid, x, y, AXES[axis], pending[axis])) {
+                    return true;
+                } // end if
+            } // end for
+            return false;
+        } // end spells
+
+        // post: method has returned true if a word ends at column x, row y
+        // when node is reached there, or at a placed cell further along
+        // axis with no empty cell between, and covers column x, row y
+        private boolean spellsAhead(Grid grid, int x, int y, Direction axis, int node) {
+            if (automaton.longestMatch(node) > 0) {
+                return true;
+            } // end if
+            // j cells further on, a word covers the cell if longer than j;
+            // once node's prefix no longer reaches back to it none can
+            for (int j = 1; automaton.depth(node) >= j; j++) {
+                int cx = x + j * axis.getDx();
+                int cy = y + j * axis.getDy();
+                if (!grid.contains(cx, cy) || grid.get(cx, cy) == Grid.EMPTY) {
+                    return false; // checked again when that cell is filled
+                } // end if
+                node = automaton.step(node, grid.get(cx, cy));
+                if (automaton.longestMatch(node) > j) {
+                    return true;
+                } // end if
+            } // end for
+            return false;
+        } // end spellsAhead
+
+        // post: pending states have become those of column x
+        void commit(int x) {
+            across = pending[0];
+            nextDownRight[x] = pending[1];
+            down[x] = pending[2];
+            nextDownLeft[x] = pending[3];
+        } // end commit
+    } // end LineStates class
+
+    // get methods
+    public LetterDistribution getLetters() {
+        return letters;
+    } // end getLetters
+
+    // toString method
+    public String toString() {
+        return "[letters = " + letters + "; blocklist = " + blocklistId + "]";
+    } // end toString
+} // end GridFiller class
@@ -0,0 +1,250 @@
+// Word Search Generator
+// GridMask - shape of a puzzle which is not a full rectangle
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+// begin GridMask class - which cells of a width x height rectangle belong
+// to a shaped puzzle, such as a heart or a logo; the others are holes
+// which no word crosses and no letter fills
+//
+// for each of the four directions reading down or right, every cell
+// stores the run of shape cells starting at it, so whether a word fits
+// the shape is one lookup however ragged the outline: a word read the
+// other way fits if the run from its last letter back to its first is
+// long enough. Runs are capped at Short.MAX_VALUE, longer than any word.
+//
+// a mask is immutable, so one may be shared by every puzzle of its shape
+public final class GridMask {
+    // directions whose runs are stored, each the reverse of one which is not
+    private static final Direction[] AXES = {
+        Direction.EAST, Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST
+    };
+
+    private final int width;
+    private final int height;
+    // one bit per cell, set for cells of the shape
+    private final long[] shape;
+    // flat index of every cell of the shape, row by row
+    private final int[] cells;
+    // run of shape cells from each cell along each direction of AXES, 0
+    // in holes, and null for the directions read through their reverse
+    private final short[][] byDirection = new short[Direction.values().length][];
+    private final int longestRun;
+    // fingerprint of the shape for toString, so a PuzzleKey changes when
+    // the shape does
+    private final String id;
+
+    // begin constructor - rows[y][x] is true for cells of the shape, rows
+    // shorter than the longest are padded with holes
+    public GridMask(boolean[][] rows) {
+        int longest = 0;
+        for (boolean[] row : rows) {
+            longest = Math.max(longest, row.length);
+        } // end for
+        if (longest == 0) {
+            throw new IllegalArgumentException("mask has no cells");
+        } // end if
+        if ((long) longest * rows.length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("mask of " + longest + " x "
+                    + rows.length + " has more than " + Integer.MAX_VALUE + " cells");
+        } // end if
+        this.width = longest;
+        this.height = rows.length;
+        this.shape = new long[(width * height + 63) >>> 6];
+        int count = 0;
+        StringBuilder outline = new StringBuilder(width * height + height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean in = x < rows[y].length && rows[y][x];
+                if (in) {
+                    int index = y * width + x;
+                    shape[index >>> 6] |= 1L << index;
+                    count++;
+                } // end if
+                outline.append(in ? '#' : '.');
+            } // end for
+            outline.append('/');
+        } // end for
+        if (count == 0) {
+            throw new IllegalArgumentException("mask has no cells");
+        } // end if
+        this.cells = new int[count];
+        for (int index = 0, n = 0; n < count; index++) {
+            if (contains(index)) {
+                cells[n++] = index;
+            } // end if
+        } // end for
+
+        int longestRun = 0;
+        for (Direction axis : AXES) {
+            short[] runs = countRuns(axis);
+            byDirection[axis.ordinal()] = runs;
+            for (short run : runs) {
+                longestRun = Math.max(longestRun, run);
+            } // end for
+        } // end for
+        this.longestRun = longestRun;
+        this.id = width + "x" + height + ":" + count + ":"
+                + PuzzleKey.of(outline.toString(), List.of(), 0);
+    } // end constructor
+
+    // post: run of shape cells from every cell along direction, which
+    // reads down or right, has been returned - cells are visited from the
+    // far end so the run of the next cell is always known
+    private short[] countRuns(Direction direction) {
+        short[] result = new short[width * height];
+        int dx = direction.getDx();
+        int dy = direction.getDy();
+        for (int i = 0; i < height; i++) {
+            int y = dy > 0 ? height - 1 - i : i;
+            for (int j = 0; j < width; j++) {
+                int x = dx > 0 ? width - 1 - j : j;
+                int index = y * width + x;
+                if (contains(index)) {
+                    int next = x + dx >= 0 && x + dx < width && y + dy < height
+                            ? result[index + dy * width + dx] : 0;
+                    result[index] = (short) Math.min(next + 1, Short.MAX_VALUE);
+                } // end if
+            } // end for
+        } // end for
+        return result;
+    } // end countRuns
+
+    // pre: lines hold one row each, '.' and ' ' marking holes and any
+    // other character a cell of the shape
+    // post: mask drawn by lines has been returned, blank lines at the end
+    // ignored
+    public static GridMask parse(List<String> lines) {
+        int last = lines.size();
+        while (last > 0 && lines.get(last - 1).isBlank()) {
+            last--;
+        } // end while
+        boolean[][] rows = new boolean[last][];
+        for (int y = 0; y < last; y++) {
+            String line = lines.get(y);
+            rows[y] = new boolean[line.length()];
+            for (int x = 0; x < line.length(); x++) {
+                rows[y][x] = line.charAt(x) != '.' && line.charAt(x) != ' ';
+            } // end for
+        } // end for
+        return new GridMask(rows);
+    } // end parse
+
+    // post: mask of image has been returned, one cell per pixel, dark
+    // opaque pixels being cells of the shape and light or transparent
+    // ones holes
+    public static GridMask of(BufferedImage image) {
+        boolean[][] rows = new boolean[image.getHeight()][image.getWidth()];
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length; x++) {
+                int argb = image.getRGB(x, y);
+                int luminance = (299 * (argb >> 16 & 0xFF) + 587 * (argb >> 8 & 0xFF)
+                        + 114 * (argb & 0xFF)) / 1000;
+                rows[y][x] = (argb >>> 24) >= 128 && luminance < 128;
+            } // end for
+        } // end for
+        return new GridMask(rows);
+    } // end of
+
+    // post: mask in file has been read and returned - PNG, GIF, BMP and
+    // JPEG files are read as images, any other file as text for parse
+    public static GridMask read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".png") || name.endsWith(".gif") || name.endsWith(".bmp")
+                || name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            BufferedImage image = ImageIO.read(file.toFile());
+            if (image == null) {
+                throw new IOException(file + ": not a readable image");
+            } // end if
+            return of(image);
+        } // end if
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    } // end read
+
+    // pre: columns > 0
+    // post: this shape resampled to columns cells across, keeping its
+    // proportions, has been returned - each cell takes the nearest cell
+    // of this mask
+    public GridMask scaled(int columns) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("columns must be positive");
+        } // end if
+        int rowsHigh = Math.max(1, (int) Math.round((double) height * columns / width));
+        List<boolean[]> rows = new ArrayList<>(rowsHigh);
+        for (int y = 0; y < rowsHigh; y++) {
+            boolean[] row = new boolean[columns];
+            int sourceY = (int) ((y + 0.5) * height / rowsHigh);
+            for (int x = 0; x < columns; x++) {
+                row[x] = contains((int) ((x + 0.5) * width / columns), sourceY);
+            } // end for
+            rows.add(row);
+        } // end for
+        return new GridMask(rows.toArray(new boolean[0][]));
+    } // end scaled
+
+    // get methods
+    public int getWidth() {
+        return width;
+    } // end getWidth
+    public int getHeight() {
+        return height;
+    } // end getHeight
+    public int getCells() {
+        return cells.length;
+    } // end getCells
+
+    // post: length of the longest straight run of shape cells has been
+    // returned, no longer word can be placed
+    public int getLongestRun() {
+        return longestRun;
+    } // end getLongestRun
+
+    // pre: 0 <= index < width * height
+    // post: method has returned true if the cell at flat index is part of
+    // the shape
+    public boolean contains(int index) {
+        return (shape[index >>> 6] & (1L << index)) != 0;
+    } // end contains
+
+    // post: method has returned true if column x, row y is inside the
+    // rectangle and part of the shape
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && contains(y * width + x);
+    } // end contains
+
+    // pre: 0 <= i < getCells()
+    // post: flat index of the i-th cell of the shape, row by row, has been
+    // returned
+    public int cell(int i) {
+        return cells[i];
+    } // end cell
+
+    // post: method has returned true if a word of length letters starting
+    // at column x, row y and read in direction lies wholly on the shape
+    public boolean fits(int x, int y, int length, Direction direction) {
+        short[] forward = byDirection[direction.ordinal()];
+        if (forward != null) {
+            return contains(x, y) && forward[y * width + x] >= length;
+        } // end if
+        // read from the last letter back along the reverse direction
+        int endX = x + direction.getDx() * (length - 1);
+        int endY = y + direction.getDy() * (length - 1);
+        return contains(endX, endY)
+                && byDirection[direction.reverse().ordinal()][endY * width + endX] >= length;
+    } // end fits
+
+    // toString method
+    public String toString() {
+        return "[mask = " + id + "]";
+    } // end toString
+} // end GridMask class
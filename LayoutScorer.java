@@ -0,0 +1,131 @@
+// Word Search Generator
+// LayoutScorer - rates how a puzzle's words are laid out
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.List;
+
+// begin LayoutScorer class - scores a puzzle from 0 to 1 on three
+// measures, each from 0 to 1, averaged with the given weights and then
+// scaled by the share of words placed:
+//     crossings  - share of placed words crossing another word
+//     directions - how evenly placed words spread over the eight
+//                  directions, as entropy relative to its maximum
+//     spread     - how evenly word cells spread over the nine regions of
+//                  a 3 x 3 split of the grid, as entropy relative to its
+//                  maximum, low when words gather in one corner
+public final class LayoutScorer implements PuzzleScorer {
+    // every measure weighted equally
+    public static final LayoutScorer DEFAULT = new LayoutScorer(1, 1, 1);
+    // regions along each side for spread
+    private static final int REGIONS = 3;
+
+    private final double crossingsWeight;
+    private final double directionsWeight;
+    private final double spreadWeight;
+
+    // begin constructor - weights are not negative and not all zero
+    public LayoutScorer(double crossingsWeight, double directionsWeight,
+                        double spreadWeight) {
+        if (!(crossingsWeight >= 0 && directionsWeight >= 0 && spreadWeight >= 0)
+                || crossingsWeight + directionsWeight + spreadWeight == 0) {
+            throw new IllegalArgumentException("weights must not be negative "
+                    + "and must not all be zero");
+        } // end if
+        this.crossingsWeight = crossingsWeight;
+        this.directionsWeight = directionsWeight;
+        this.spreadWeight = spreadWeight;
+    } // end constructor
+
+    // post: score of puzzle from 0 to 1 has been returned
+    @Override
+    public double score(Puzzle puzzle) {
+        List<Placement> placements = puzzle.getPlacements();
+        if (placements.isEmpty()) {
+            return 0;
+        } // end if
+        double weighted = crossingsWeight * crossings(puzzle)
+                + directionsWeight * directions(placements)
+                + spreadWeight * spread(puzzle);
+        double placed = (double) placements.size() / puzzle.getWords().size();
+        return placed * weighted / (crossingsWeight + directionsWeight + spreadWeight);
+    } // end score
+
+    // post: share of placed words with a cell held by another placed word
+    // has been returned, 1 if fewer than two words were placed
+    static double crossings(Puzzle puzzle) {
+        List<Placement> placements = puzzle.getPlacements();
+        if (placements.size() < 2) {
+            return 1;
+        } // end if
+        int width = puzzle.getDimensions();
+        int[] owners = new int[puzzle.grid().size()];
+        for (Placement placement : placements) {
+            for (int i = 0; i < placement.getLength(); i++) {
+                owners[placement.cell(i, width)]++;
+            } // end for
+        } // end for
+        int crossed = 0;
+        for (Placement placement : placements) {
+            for (int i = 0; i < placement.getLength(); i++) {
+                if (owners[placement.cell(i, width)] > 1) {
+                    crossed++;
+                    break;
+                } // end if
+            } // end for
+        } // end for
+        return (double) crossed / placements.size();
+    } // end crossings
+
+    // post: entropy of the directions of placements relative to the most
+    // their number allows has been returned, 1 for a single word
+    static double directions(List<Placement> placements) {
+        int[] counts = new int[Direction.values().length];
+        for (Placement placement : placements) {
+            counts[placement.getDirection().ordinal()]++;
+        } // end for
+        return evenness(counts, placements.size(),
+                Math.min(counts.length, placements.size()));
+    } // end directions
+
+    // post: entropy of the word cells of puzzle over a 3 x 3 split of its
+    // grid relative to the most it can be has been returned
+    static double spread(Puzzle puzzle) {
+        Grid grid = puzzle.grid();
+        int[] counts = new int[REGIONS * REGIONS];
+        int total = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            int row = y * REGIONS / grid.getHeight() * REGIONS;
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (grid.isWordCell(grid.index(x, y))) {
+                    counts[row + x * REGIONS / grid.getWidth()]++;
+                    total++;
+                } // end if
+            } // end for
+        } // end for
+        return evenness(counts, total, Math.min(counts.length, total));
+    } // end spread
+
+    // post: entropy of counts, which add up to total, divided by that of
+    // total spread evenly over outcomes has been returned, 1 if outcomes
+    // is less than 2
+    private static double evenness(int[] counts, int total, int outcomes) {
+        if (outcomes < 2) {
+            return 1;
+        } // end if
+        double entropy = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = (double) count / total;
+                entropy -= p * Math.log(p);
+            } // end if
+        } // end for
+        return Math.min(1, entropy / Math.log(outcomes));
+    } // end evenness
+
+    // toString method
+    public String toString() {
+        return "[crossings = " + crossingsWeight + "; directions = "
+                + directionsWeight + "; spread = " + spreadWeight + "]";
+    } // end toString
+} // end LayoutScorer class
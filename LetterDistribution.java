@@ -0,0 +1,158 @@
+// Word Search Generator
+// LetterDistribution - letters used to fill a grid and their frequencies
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// begin LetterDistribution class - the letters empty cells are filled
+// with, each drawn with probability proportional to its weight, so a
+// filled grid can follow the letter frequencies of a language
+//
+// the letters are those of an Alphabet, which also decides how the words
+// of a puzzle filled from this distribution are upper cased. Language
+// weights are in thousandths of a percent of letters in text, accented
+// letters counted with the letter they fold to
+public final class LetterDistribution {
+    // every letter from A to Z equally often
+    public static final LetterDistribution UNIFORM = uniform(Alphabet.LATIN);
+    // letters from A to Z as often as in English text, so filler letters
+    // are as hard to tell apart from words as real text
+    public static final LetterDistribution ENGLISH =
+            new LetterDistribution("english", Alphabet.LATIN, new int[] {
+                8167, 1492, 2782, 4253, 12702, 2228, 2015, 6094, 6966, 153, 772,
+                4025, 2406, 6749, 7507, 1929, 95, 5987, 6327, 9056, 2758, 978,
+                2360, 150, 1974, 74});
+    // letters of Alphabet.SPANISH as often as in Spanish text
+    public static final LetterDistribution SPANISH =
+            new LetterDistribution("spanish", Alphabet.SPANISH, new int[] {
+                12027, 2215, 4019, 5010, 12614, 692, 1768, 703, 6972, 493, 11,
+                4967, 3157, 6712, 311, 9510, 2510, 877, 6871, 7977, 4632, 3107,
+                1138, 17, 215, 1008, 467});
+    // letters of Alphabet.GERMAN as often as in German text, SHARP S
+    // counted twice as S
+    public static final LetterDistribution GERMAN =
+            new LetterDistribution("german", Alphabet.GERMAN, new int[] {
+                6516, 1886, 2732, 5076, 16396, 1656, 3009, 4577, 6550, 268, 1417,
+                3437, 2534, 9776, 2594, 670, 18, 7003, 7884, 6154, 4166, 846,
+                1921, 34, 39, 1134, 578, 443, 995});
+    // letters of Alphabet.GREEK as often as in Greek text
+    public static final LetterDistribution GREEK =
+            new LetterDistribution("greek", Alphabet.GREEK, new int[] {
+                12000, 900, 1800, 1800, 8500, 400, 4500, 1300, 9000, 4200, 2700,
+                3300, 6600, 300, 9800, 4100, 4600, 7900, 8500, 4300, 800, 1200,
+                200, 1600});
+    // letters of Alphabet.RUSSIAN as often as in Russian text
+    public static final LetterDistribution RUSSIAN =
+            new LetterDistribution("russian", Alphabet.RUSSIAN, new int[] {
+                8010, 1590, 4540, 1700, 2980, 8450, 40, 940, 1650, 7350, 1210,
+                3490, 4400, 3210, 6700, 10970, 2810, 4730, 5470, 6260, 2620, 260,
+                970, 480, 1440, 730, 360, 40, 1900, 1740, 320, 640, 2010});
+
+    private final String name;
+    private final Alphabet alphabet;
+    private final int[] weights;
+    // running totals of weights, so a draw is a binary search
+    private final int[] cumulative;
+
+    // pre: weights holds one weight per letter
+    // begin constructor - letters are upper cased as in Locale.ROOT
+    public LetterDistribution(String name, String letters, int[] weights) {
+        this(name, Alphabet.forLetters(letters), weights);
+    } // end constructor
+
+    // constructor - weights holds one weight per letter of alphabet, in
+    // its order
+    public LetterDistribution(String name, Alphabet alphabet, int[] weights) {
+        if (weights.length != alphabet.size()) {
+            throw new IllegalArgumentException("expected one weight per letter");
+        } // end if
+        this.name = name;
+        this.alphabet = alphabet;
+        this.weights = weights.clone();
+        this.cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] <= 0) {
+                throw new IllegalArgumentException("weights must be positive");
+            } // end if
+            total = Math.addExact(total, weights[i]);
+            cumulative[i] = total;
+        } // end for
+    } // end constructor
+
+    // post: distribution drawing every letter of alphabet equally often
+    // has been returned
+    public static LetterDistribution uniform(Alphabet alphabet) {
+        int[] weights = new int[alphabet.size()];
+        Arrays.fill(weights, 1);
+        return new LetterDistribution(alphabet == Alphabet.LATIN ? "uniform"
+                : "uniform-" + alphabet.getName(), alphabet, weights);
+    } // end uniform
+
+    // pre: name is uniform, english, spanish, german, greek or russian, or
+    // uniform-<alphabet> for the letters of an alphabet equally often
+    // post: distribution of that name has been returned
+    public static LetterDistribution forName(String name) {
+        for (LetterDistribution letters : new LetterDistribution[] {
+                UNIFORM, ENGLISH, SPANISH, GERMAN, GREEK, RUSSIAN}) {
+            if (name.equalsIgnoreCase(letters.name)) {
+                return letters;
+            } // end if
+        } // end for
+        if (name.regionMatches(true, 0, "uniform-", 0, "uniform-".length())) {
+            return uniform(Alphabet.forName(name.substring("uniform-".length())));
+        } // end if
+        throw new IllegalArgumentException("unknown letter distribution " + name);
+    } // end forName
+
+    // post: alphabet of the letters has been returned
+    public Alphabet getAlphabet() {
+        return alphabet;
+    } // end getAlphabet
+
+    // post: number of letters has been returned
+    public int size() {
+        return alphabet.size();
+    } // end size
+
+    // pre: 0 <= i < size()
+    // post: letter i has been returned
+    public char letterAt(int i) {
+        return alphabet.letterAt(i);
+    } // end letterAt
+
+    // post: index of a letter drawn by weight has been returned
+    public int pick(RandomGenerator rand) {
+        int i = Arrays.binarySearch(cumulative, rand.nextInt(cumulative[cumulative.length - 1]));
+        // an exact hit on a running total belongs to the next letter
+        return i >= 0 ? i + 1 : -i - 1;
+    } // end pick
+
+    // pre: at least one letter is not excluded
+    // post: index of a letter drawn by weight from those not excluded has
+    // been returned
+    public int pick(RandomGenerator rand, boolean[] excluded) {
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!excluded[i]) {
+                total += weights[i];
+            } // end if
+        } // end for
+        int r = rand.nextInt(total);
+        int i = 0;
+        while (excluded[i] || r >= weights[i]) {
+            if (!excluded[i]) {
+                r -= weights[i];
+            } // end if
+            i++;
+        } // end while
+        return i;
+    } // end pick
+
+    // toString method
+    public String toString() {
+        return name;
+    } // end toString
+} // end LetterDistribution class
@@ -0,0 +1,100 @@
+// Word Search Generator
+// LetterIndex - positions of every letter placed in a grid
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// begin LetterIndex class - maps each character to the flat grid cells
+// which hold it, in the order the cells were written, so intersections
+// are found by visiting only cells with a matching letter instead of
+// scanning the whole grid
+final class LetterIndex {
+    // lists for ASCII characters are kept in an array, any other
+    // character falls back to a map
+    private final CellList[] ascii = new CellList[128];
+    private final Map<Character, CellList> other = new HashMap<>();
+
+    // post: cell has been recorded as holding c
+    public void add(char c, int cell) {
+        list(c, true).add(cell);
+    } // end add
+
+    // post: cell is no longer recorded as holding c
+    public void remove(char c, int cell) {
+        CellList list = list(c, false);
+        if (list != null) {
+            list.remove(cell);
+        } // end if
+    } // end remove
+
+    // post: number of cells holding c has been returned
+    public int count(char c) {
+        CellList list = list(c, false);
+        return list == null ? 0 : list.size;
+    } // end count
+
+    // pre: 0 <= i < count(c)
+    // post: flat index of the i-th cell holding c has been returned
+    public int get(char c, int i) {
+        return list(c, false).cells[i];
+    } // end get
+
+    // post: every recorded cell has been forgotten
+    public void clear() {
+        for (CellList list : ascii) {
+            if (list != null) {
+                list.size = 0;
+            } // end if
+        } // end for
+        other.clear();
+    } // end clear
+
+    // post: list of cells for c has been returned, created if create is
+    // true and no list exists yet, otherwise null if none exists
+    private CellList list(char c, boolean create) {
+        CellList list;
+        if (c < ascii.length) {
+            list = ascii[c];
+            if (list == null && create) {
+                list = new CellList();
+                ascii[c] = list;
+            } // end if
+        } else {
+            list = other.get(c);
+            if (list == null && create) {
+                list = new CellList();
+                other.put(c, list);
+            } // end if
+        } // end if/else
+        return list;
+    } // end list
+
+    // begin CellList class - growable array of flat cell indexes
+    private static final class CellList {
+        private int[] cells = new int[8];
+        private int size;
+
+        // post: cell has been appended
+        void add(int cell) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+            } // end if
+            cells[size++] = cell;
+        } // end add
+
+        // post: first occurrence of cell has been removed, later cells
+        // keep their order
+        void remove(int cell) {
+            for (int i = 0; i < size; i++) {
+                if (cells[i] == cell) {
+                    System.arraycopy(cells, i + 1, cells, i, size - i - 1);
+                    size--;
+                    return;
+                } // end if
+            } // end for
+        } // end remove
+    } // end CellList class
+} // end LetterIndex class
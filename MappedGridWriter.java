@@ -0,0 +1,75 @@
+// Word Search Generator
+// MappedGridWriter - stream a grid into a memory-mapped file
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// begin MappedGridWriter class - writes a grid straight from its cells
+// into a file mapped into memory a window at a time, one row per line and
+// one character per cell in UTF-8, so a grid of any size is written
+// without building its text on the heap; the solution is written from the
+// word flags of the same grid rather than from a second copy
+public final class MappedGridWriter {
+    // bytes of the file mapped at a time
+    private static final int WINDOW = 1 << 26;
+    // longest UTF-8 encoding of a char
+    private static final int MAX_CHAR_BYTES = 3;
+
+    // begin constructor - static methods only
+    private MappedGridWriter() {
+    } // end constructor
+
+    // post: rows of grid, or of its solution with blank in cells outside
+    // a word, have been written to file, replacing its contents, and the
+    // number of bytes written has been returned
+    public static long write(Grid grid, boolean solution, char blank, Path file)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0; // file offset of the current window
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW);
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x <= grid.getWidth(); x++) {
+                    if (window.remaining() < MAX_CHAR_BYTES) {
+                        // move the window on, leaving no gap in the file
+                        position += window.position();
+                        window = channel.map(FileChannel.MapMode.READ_WRITE, position, WINDOW);
+                    } // end if
+                    if (x == grid.getWidth()) {
+                        window.put((byte) '\n');
+                    } else {
+                        putUtf8(window, solution ? grid.getSolutionChar(x, y, blank)
+                                : grid.get(x, y));
+                    } // end if/else
+                } // end horizontal for
+            } // end vertical for
+            long length = position + window.position();
+            // mapping extended the file to the end of the last window
+            channel.truncate(length);
+            return length;
+        } // end try
+    } // end write
+
+    // post: c has been appended to buffer in UTF-8, a lone surrogate as
+    // '?'
+    private static void putUtf8(MappedByteBuffer buffer, char c) {
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >>> 6));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | c >>> 12));
+            buffer.put((byte) (0x80 | (c >>> 6 & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } // end if/else
+    } // end putUtf8
+} // end MappedGridWriter class
@@ -0,0 +1,238 @@
+// Word Search Generator
+// MetricsRecorder - counters and histograms of generation events
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// begin MetricsRecorder class - GenerationMetrics which adds up every
+// event in striped counters and fixed-bucket histograms, so any number of
+// generator threads can record into one recorder without contending on a
+// lock; read it through the get methods, toString, or JMX once registered
+public class MetricsRecorder implements GenerationMetrics, MetricsRecorderMBean {
+    // upper bounds of the latency buckets in microseconds, 50 us to 100 s
+    private static final long[] LATENCY_BOUNDS = {
+        50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000,
+        100_000, 200_000, 500_000, 1_000_000, 2_000_000, 5_000_000,
+        10_000_000, 20_000_000, 50_000_000, 100_000_000
+    };
+    // upper bounds of the random attempt buckets - placeWords gives up
+    // after 101 attempts
+    private static final long[] ATTEMPT_BOUNDS = {1, 2, 3, 5, 10, 20, 50, 100, 101};
+    // upper bounds of the fill ratio buckets in thousandths
+    private static final long[] FILL_BOUNDS = {
+        100, 200, 300, 400, 500, 600, 700, 800, 900, 1000
+    };
+
+    private final Histogram latencyMicros = new Histogram(LATENCY_BOUNDS);
+    private final Histogram randomAttempts = new Histogram(ATTEMPT_BOUNDS);
+    private final Histogram fillPerMille = new Histogram(FILL_BOUNDS);
+    private final LongAdder pathChecks = new LongAdder();
+    private final LongAdder pathRejections = new LongAdder();
+    private final LongAdder wordsCrossed = new LongAdder();
+    private final LongAdder wordsPlacedRandomly = new LongAdder();
+    private final LongAdder failedWords = new LongAdder();
+
+    // begin Histogram class - count of values falling in each bucket,
+    // bucket i holding values up to bounds[i] and the last one everything
+    // larger, with their sum and maximum
+    private static final class Histogram {
+        private final long[] bounds;
+        private final AtomicLongArray counts;
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        // pre: bounds is sorted in ascending order
+        // begin constructor
+        Histogram(long[] bounds) {
+            this.bounds = bounds;
+            this.counts = new AtomicLongArray(bounds.length + 1);
+        } // end constructor
+
+        // pre: value >= 0
+        // post: value has been counted in its bucket
+        void record(long value) {
+            int bucket = 0;
+            while (bucket < bounds.length && value > bounds[bucket]) {
+                bucket++;
+            } // end while
+            counts.incrementAndGet(bucket);
+            sum.add(value);
+            max.accumulate(value);
+        } // end record
+
+        // post: number of values recorded has been returned
+        long count() {
+            long count = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                count += counts.get(i);
+            } // end for
+            return count;
+        } // end count
+
+        // post: mean of the values recorded has been returned, 0 if none
+        double mean() {
+            long count = count();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        } // end mean
+
+        // post: largest value recorded has been returned, 0 if none
+        long max() {
+            return max.get();
+        } // end max
+
+        // pre: 0 < fraction <= 1
+        // post: upper bound of the bucket holding the value fraction of
+        // the way through the values recorded has been returned, the
+        // maximum if that is the last bucket, 0 if none were recorded
+        long percentile(double fraction) {
+            long rank = (long) Math.ceil(fraction * count());
+            long seen = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                seen += counts.get(i);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(bounds[i], max());
+                } // end if
+            } // end for
+            return max();
+        } // end percentile
+
+        // post: every bucket, the sum and the maximum are 0
+        void reset() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            } // end for
+            sum.reset();
+            max.reset();
+        } // end reset
+    } // end Histogram class
+
+    // post: word placement has been counted
+    public void wordPlaced(boolean crossed, int randomAttempts) {
+        if (crossed) {
+            wordsCrossed.increment();
+        } else {
+            wordsPlacedRandomly.increment();
+            this.randomAttempts.record(randomAttempts);
+        } // end if/else
+    } // end wordPlaced
+
+    // post: failed word has been counted, and its attempts if it was
+    // tried at random
+    public void wordFailed(String word, int randomAttempts) {
+        failedWords.increment();
+        if (randomAttempts > 0) {
+            this.randomAttempts.record(randomAttempts);
+        } // end if
+    } // end wordFailed
+
+    // post: latency, path checks and fill ratio of the puzzle have been
+    // counted
+    public void puzzleGenerated(long nanos, long pathChecks, long pathRejections,
+                                int cells, int wordCells) {
+        latencyMicros.record(nanos / 1_000);
+        this.pathChecks.add(pathChecks);
+        this.pathRejections.add(pathRejections);
+        fillPerMille.record(cells == 0 ? 0 : wordCells * 1000L / cells);
+    } // end puzzleGenerated
+
+    // post: recorder has been registered with the platform MBean server
+    // as wordsearchgenerator:type=GenerationMetrics,name=name and its
+    // object name has been returned
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("wordsearchgenerator:type="
+                + "GenerationMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    } // end register
+
+    // post: every counter and histogram has been set back to zero
+    public void reset() {
+        latencyMicros.reset();
+        randomAttempts.reset();
+        fillPerMille.reset();
+        pathChecks.reset();
+        pathRejections.reset();
+        wordsCrossed.reset();
+        wordsPlacedRandomly.reset();
+        failedWords.reset();
+    } // end reset
+
+    // get methods
+    public long getPuzzles() {
+        return latencyMicros.count();
+    } // end getPuzzles
+    public double getLatencyMeanMillis() {
+        return latencyMicros.mean() / 1_000;
+    } // end getLatencyMeanMillis
+    public double getLatencyP50Millis() {
+        return latencyMicros.percentile(0.5) / 1_000.0;
+    } // end getLatencyP50Millis
+    public double getLatencyP99Millis() {
+        return latencyMicros.percentile(0.99) / 1_000.0;
+    } // end getLatencyP99Millis
+    public double getLatencyMaxMillis() {
+        return latencyMicros.max() / 1_000.0;
+    } // end getLatencyMaxMillis
+    public long getPathChecks() {
+        return pathChecks.sum();
+    } // end getPathChecks
+    public long getPathRejections() {
+        return pathRejections.sum();
+    } // end getPathRejections
+    public double getPathRejectionRate() {
+        long checks = getPathChecks();
+        return checks == 0 ? 0 : (double) getPathRejections() / checks;
+    } // end getPathRejectionRate
+    public long getWordsCrossed() {
+        return wordsCrossed.sum();
+    } // end getWordsCrossed
+    public long getWordsPlacedRandomly() {
+        return wordsPlacedRandomly.sum();
+    } // end getWordsPlacedRandomly
+    public double getIntersectionHitRate() {
+        long crossed = getWordsCrossed();
+        long tried = crossed + getWordsPlacedRandomly() + getFailedWords();
+        return tried == 0 ? 0 : (double) crossed / tried;
+    } // end getIntersectionHitRate
+    public double getMeanRandomAttempts() {
+        return randomAttempts.mean();
+    } // end getMeanRandomAttempts
+    public long getRandomAttemptsP99() {
+        return randomAttempts.percentile(0.99);
+    } // end getRandomAttemptsP99
+    public long getMaxRandomAttempts() {
+        return randomAttempts.max();
+    } // end getMaxRandomAttempts
+    public long getFailedWords() {
+        return failedWords.sum();
+    } // end getFailedWords
+    public double getMeanFillRatio() {
+        return fillPerMille.mean() / 1_000;
+    } // end getMeanFillRatio
+    public double getFillRatioP50() {
+        return fillPerMille.percentile(0.5) / 1_000.0;
+    } // end getFillRatioP50
+
+    // toString method
+    public String toString() {
+        return String.format("%d puzzles, latency mean %.2f ms, p50 %.2f ms, "
+                + "p99 %.2f ms, max %.2f ms%n"
+                + "%d path checks, %.1f%% rejected%n"
+                + "%d words crossed another, %d placed at random, %d failed, "
+                + "intersection hit rate %.1f%%%n"
+                + "random attempts per word mean %.1f, p99 %d, max %d%n"
+                + "fill ratio mean %.1f%%, p50 %.0f%%", getPuzzles(),
+                getLatencyMeanMillis(), getLatencyP50Millis(), getLatencyP99Millis(),
+                getLatencyMaxMillis(), getPathChecks(), 100 * getPathRejectionRate(),
+                getWordsCrossed(), getWordsPlacedRandomly(), getFailedWords(),
+                100 * getIntersectionHitRate(), getMeanRandomAttempts(),
+                getRandomAttemptsP99(), getMaxRandomAttempts(),
+                100 * getMeanFillRatio(), 100 * getFillRatioP50());
+    } // end toString
+} // end MetricsRecorder class
@@ -0,0 +1,31 @@
+// Word Search Generator
+// MetricsRecorderMBean - JMX view of a MetricsRecorder
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+// begin MetricsRecorderMBean interface - attributes a MetricsRecorder
+// registered with MetricsRecorder.register shows in JConsole or any other
+// JMX client; latencies are in milliseconds and percentiles are the upper
+// bound of the histogram bucket they fall in
+public interface MetricsRecorderMBean {
+    long getPuzzles();
+    double getLatencyMeanMillis();
+    double getLatencyP50Millis();
+    double getLatencyP99Millis();
+    double getLatencyMaxMillis();
+    long getPathChecks();
+    long getPathRejections();
+    double getPathRejectionRate();
+    long getWordsCrossed();
+    long getWordsPlacedRandomly();
+    double getIntersectionHitRate();
+    double getMeanRandomAttempts();
+    long getRandomAttemptsP99();
+    long getMaxRandomAttempts();
+    long getFailedWords();
+    double getMeanFillRatio();
+    double getFillRatioP50();
+
+    // post: every counter and histogram has been set back to zero
+    void reset();
+} // end MetricsRecorderMBean interface
@@ -0,0 +1,71 @@
+// Word Search Generator
+// Placement - where a word of a puzzle was placed
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Locale;
+import java.util.Objects;
+
+// begin Placement class - a placed word read from its first letter at
+// column x, row y in direction; the placements of a puzzle describe its
+// solution without a second grid
+public final class Placement {
+    private final String word;
+    private final int x;
+    private final int y;
+    private final Direction direction;
+
+    // begin constructor
+    public Placement(String word, int x, int y, Direction direction) {
+        this.word = word;
+        this.x = x;
+        this.y = y;
+        this.direction = direction;
+    } // end constructor
+
+    // get methods
+    public String getWord() {
+        return word;
+    } // end getWord
+    public int getX() {
+        return x;
+    } // end getX
+    public int getY() {
+        return y;
+    } // end getY
+    public Direction getDirection() {
+        return direction;
+    } // end getDirection
+    public int getLength() {
+        return word.length();
+    } // end getLength
+
+    // pre: 0 <= i < getLength(), placement lies inside a grid of width
+    // post: flat index of letter i in that grid has been returned
+    public int cell(int i, int width) {
+        return (y + i * direction.getDy()) * width + x + i * direction.getDx();
+    } // end cell
+
+    // equals method
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Placement)) {
+            return false;
+        } // end if
+        Placement other = (Placement) o;
+        return word.equals(other.word) && x == other.x && y == other.y
+                && direction == other.direction;
+    } // end equals
+
+    // hashCode method
+    @Override
+    public int hashCode() {
+        return Objects.hash(word, x, y, direction);
+    } // end hashCode
+
+    // toString method
+    public String toString() {
+        return word + " at (" + x + ", " + y + ") "
+                + direction.name().toLowerCase(Locale.ROOT);
+    } // end toString
+} // end Placement class
@@ -0,0 +1,132 @@
+// Word Search Generator
+// PosterGenerator - single very large puzzle written to mapped files
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// begin PosterGenerator class - generates one puzzle of a given size,
+// typically far larger than a page, from a dictionary, and streams the
+// grid and its solution straight into memory-mapped files
+//
+// grids larger than WordSearchGenerator.DENSE_CELLS are tiled, so only
+// the tiles words reach use memory while words are placed, and the
+// puzzle is written from the generator's own grid without copying it
+// into a Puzzle first
+public class PosterGenerator {
+    private final DirectionWeights directions;
+    private final GridFiller filler;
+    private final boolean offHeap;
+
+    // begin constructor - tiles are kept outside the Java heap if offHeap
+    // is true
+    public PosterGenerator(DirectionWeights directions, GridFiller filler,
+                           boolean offHeap) {
+        this.directions = directions;
+        this.filler = filler;
+        this.offHeap = offHeap;
+    } // end constructor
+
+    // pre: words is not empty, dimensions >= length of longest word
+    // post: puzzle of dimensions x dimensions has been generated from
+    // words with rand; the puzzle has been written to output, its solution
+    // to output.solution and the word list, then any words which could
+    // not be placed, to output.words - the generator has been returned
+    WordSearchGenerator generate(List<String> words, int dimensions,
+                                 RandomGenerator rand, Path output) throws IOException {
+        WordSearchGenerator generator = new WordSearchGenerator(rand,
+                WordOrder.LENGTH_DESCENDING, directions, filler);
+        generator.setOffHeap(offHeap);
+        generator.generate(words, dimensions, null);
+        Grid grid = generator.getGrid();
+        MappedGridWriter.write(grid, false, '_', output);
+        MappedGridWriter.write(grid, true, '_', sibling(output, ".solution"));
+        try (Writer list = Files.newBufferedWriter(sibling(output, ".words"),
+                StandardCharsets.UTF_8)) {
+            list.write("words: " + String.join(" ", generator.getWords()) + "\n");
+            list.write("failed: " + String.join(" ", generator.getFailedWords()) + "\n");
+        } // end try
+        return generator;
+    } // end generate
+
+    // post: path of file with suffix appended to its name has been returned
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    } // end sibling
+
+    // pre: args = [--off-heap] [--directions weights] [--fill distribution]
+    //   dimensions, seed or -, dictionary[:k], output file
+    // post: puzzle has been generated and written as by generate, with
+    // timings printed
+    public static void run(String[] args) throws IOException {
+        String usage = "usage: poster [--off-heap] [--directions classic|all|forward|"
+                + "east=n,...] [--fill uniform|english|spanish|german|greek|russian] "
+                + "<dimensions> <seed|-> <dictionary>[:k] <output>";
+        boolean offHeap = false;
+        DirectionWeights directions = DirectionWeights.CLASSIC;
+        LetterDistribution fill = LetterDistribution.UNIFORM;
+        int i = 0;
+        int dimensions;
+        Long seed;
+        try {
+            while (args.length - i > 4) {
+                if (args[i].equals("--off-heap")) {
+                    offHeap = true;
+                    i++;
+                } else if (args[i].equals("--directions")) {
+                    directions = DirectionWeights.parse(args[i + 1]);
+                    i += 2;
+                } else if (args[i].equals("--fill")) {
+                    fill = LetterDistribution.forName(args[i + 1]);
+                    i += 2;
+                } else {
+                    System.err.println(usage);
+                    return;
+                } // end if/else
+            } // end while
+            if (args.length - i != 4) {
+                System.err.println(usage);
+                return;
+            } // end if
+            dimensions = Integer.parseInt(args[i]);
+            seed = args[i + 1].equals("-") ? null : Long.valueOf(args[i + 1]);
+        } catch (IllegalArgumentException e) {
+            System.err.println(usage);
+            return;
+        } // end try/catch
+
+        long start = System.nanoTime();
+        long sampleSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        String dictionary = args[i + 2];
+        int colon = dictionary.lastIndexOf(':');
+        WordListReader reader = new WordListReader(3, dimensions, fill.getAlphabet());
+        List<String> words = colon > 0
+                ? reader.sample(Path.of(dictionary.substring(0, colon)),
+                        Integer.parseInt(dictionary.substring(colon + 1)), sampleSeed)
+                : reader.readAll(Path.of(dictionary));
+        if (words.isEmpty()) {
+            System.err.println(dictionary + ": no words of 3 to " + dimensions
+                    + " letters");
+            return;
+        } // end if
+        long read = System.nanoTime();
+
+        PosterGenerator poster = new PosterGenerator(directions,
+                new GridFiller(fill, List.of()), offHeap);
+        WordSearchGenerator generator = poster.generate(words, dimensions,
+                new SplittableRandom(sampleSeed), Path.of(args[i + 3]));
+        long done = System.nanoTime();
+        System.out.printf("Read %d words in %d ms%n", words.size(),
+                (read - start) / 1_000_000);
+        System.out.printf("Generated and wrote %d x %d grid in %d ms, "
+                + "%d words could not be placed%n", dimensions, dimensions,
+                (done - read) / 1_000_000, generator.getFailedWords().size());
+    } // end run
+} // end PosterGenerator class
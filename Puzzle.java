@@ -0,0 +1,120 @@
+// Word Search Generator
+// Puzzle - immutable result of a headless generation
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.List;
+
+// begin Puzzle class - immutable snapshot of a generated word search,
+// holding the puzzle grid, whose word cells form the solution, the word
+// lists and where each placed word was put
+public final class Puzzle {
+    private final Grid grid;
+    private final List<String> words;
+    private final List<String> failedWords;
+    // placed words in the order of words
+    private final List<Placement> placements;
+
+    // begin constructor - grid is copied so that later changes to the
+    // generator do not leak into this puzzle; placements are found by
+    // solving the word cells of grid for the words which did not fail
+    public Puzzle(Grid grid, List<String> words, List<String> failedWords) {
+        this(grid, words, failedWords, findPlacements(grid, words, failedWords));
+    } // end constructor
+
+    // constructor - placements are where the generator put every word of
+    // words which is not in failedWords, in the order of words
+    public Puzzle(Grid grid, List<String> words, List<String> failedWords,
+                  List<Placement> placements) {
+        this.grid = grid.copy();
+        this.words = List.copyOf(words);
+        this.failedWords = List.copyOf(failedWords);
+        this.placements = List.copyOf(placements);
+    } // end constructor
+
+    // post: for every word of words not in failedWords, the first
+    // occurrence lying wholly on word cells of grid has been returned
+    private static List<Placement> findPlacements(Grid grid, List<String> words,
+                                                  List<String> failedWords) {
+        List<String> placed = new ArrayList<>(words);
+        for (String word : failedWords) {
+            placed.remove(word);
+        } // end for
+        List<Placement> placements = new ArrayList<>(placed.size());
+        if (placed.isEmpty()) {
+            return placements;
+        } // end if
+        List<PuzzleSolver.Occurrence> found = new PuzzleSolver(placed).solve(grid);
+        for (String word : placed) {
+            for (PuzzleSolver.Occurrence occurrence : found) {
+                Placement placement = new Placement(word, occurrence.getX(),
+                        occurrence.getY(), occurrence.getDirection());
+                if (occurrence.getWord().equals(word) && !placements.contains(placement)
+                        && onWordCells(grid, placement)) {
+                    placements.add(placement);
+                    break;
+                } // end if
+            } // end for
+        } // end for
+        return placements;
+    } // end findPlacements
+
+    // post: method has returned true if every cell of placement is part
+    // of a word in grid
+    private static boolean onWordCells(Grid grid, Placement placement) {
+        for (int i = 0; i < placement.getLength(); i++) {
+            if (!grid.isWordCell(placement.cell(i, grid.getWidth()))) {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end onWordCells
+
+    // post: W x H of the square grid has been returned
+    public int getDimensions() {
+        return grid.getWidth();
+    } // end getDimensions
+
+    // post: character at column x, row y of the puzzle has been returned
+    public char getPuzzleChar(int x, int y) {
+        return grid.get(x, y);
+    } // end getPuzzleChar
+
+    // post: character at column x, row y of the solution has been returned,
+    // '_' for cells which do not belong to a word
+    public char getSolutionChar(int x, int y) {
+        return grid.getSolutionChar(x, y, '_');
+    } // end getSolutionChar
+
+    // get methods - grids are returned as copies
+    public char[][] getPuzzle() {
+        return grid.toArray();
+    } // end getPuzzle
+    public char[][] getSolution() {
+        return grid.toSolutionArray('_');
+    } // end getSolution
+    public Grid getGrid() {
+        return grid.copy();
+    } // end getGrid
+
+    // post: grid of this puzzle has been returned without copying, for
+    // readers in this package which must not change it
+    Grid grid() {
+        return grid;
+    } // end grid
+    public List<String> getWords() {
+        return words;
+    } // end getWords
+    public List<String> getFailedWords() {
+        return failedWords;
+    } // end getFailedWords
+    public List<Placement> getPlacements() {
+        return placements;
+    } // end getPlacements
+
+    // post: method has returned true if every word was placed
+    public boolean isComplete() {
+        return failedWords.isEmpty();
+    } // end isComplete
+} // end Puzzle class
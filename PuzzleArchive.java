@@ -0,0 +1,402 @@
+// Word Search Generator
+// PuzzleArchive - memory-mapped reader of binary puzzle archives
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// begin PuzzleArchive class - reads an archive written by
+// PuzzleArchiveWriter by mapping it into memory, so any puzzle of an
+// archive of millions is reached through the index in constant time and
+// read in place, without deserializing the ones before it or copying its
+// cells
+//
+// format version 2, all numbers little endian:
+//     header   "WSPA" magic, u16 version, u16 letter count n, then the n
+//              letters of the archive's Alphabet as UTF-16 chars
+//     records  one per puzzle:
+//              u32 record length, u16 width, u16 height, u16 word count,
+//              u16 bytes of failed word letters,
+//              cells row by row at the fewest bits holding code n + 1,
+//              low bits first, code 0 for an empty cell, 1 to n for the
+//              letters in order and n + 1 for a hole outside the shape of
+//              a shaped puzzle, plus one spare byte,
+//              one 8 byte entry per word: u8 direction ordinal or 0xFF if
+//              the word failed, u8 reserved, u16 length, then u16 x and
+//              u16 y of its first letter, or for a failed word u16 offset
+//              of its letters and u16 reserved,
+//              letters of the failed words, one code per byte
+//     index    u64 offset of every record
+//     trailer  u64 record count, u64 index offset, "WSPX" magic
+// version 1 is the same with no letters, n being 0 in the header, and is
+// read as Alphabet.LATIN - five bits a cell as in version 2
+//
+// the file is mapped in overlapping segments of SEGMENT_BYTES, each
+// extended by MAX_RECORD_BYTES, so a record always lies within the segment
+// it starts in however large the archive; an archive may be read by many
+// threads at once
+public final class PuzzleArchive implements Closeable {
+    // format constants shared with PuzzleArchiveWriter
+    static final int MAGIC = 0x41505357; // "WSPA" read little endian
+    static final int INDEX_MAGIC = 0x58505357; // "WSPX"
+    static final short VERSION = 2;
+    // header bytes before the letters
+    static final int HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 20;
+    static final int RECORD_HEADER_BYTES = 12;
+    static final int ENTRY_BYTES = 8;
+    static final byte FAILED = (byte) 0xFF;
+    // largest grid side, word count, word length and failed letter count
+    static final int MAX_SIDE = 0xFFFF;
+    // largest record, well above any page sized puzzle
+    static final int MAX_RECORD_BYTES = 1 << 24;
+    // bytes of the file a segment starts apart
+    private static final long SEGMENT_BYTES = 1L << 30;
+    // values() clones its array on every call
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Alphabet alphabet;
+    // bytes before the first record
+    private final int headerBytes;
+    private final int codeBits;
+    private final int count;
+    private final long indexOffset;
+    private final MappedByteBuffer[] segments;
+
+    // begin constructor
+    private PuzzleArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        if (fileSize < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IOException("not a puzzle archive");
+        } // end if
+        ByteBuffer header = read(0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not a puzzle archive");
+        } // end if
+        short version = header.getShort();
+        int letters = Short.toUnsignedInt(header.getShort());
+        if (version != 1 && version != VERSION || version == 1 && letters != 0
+                || letters > Alphabet.MAX_LETTERS) {
+            throw new IOException("unsupported puzzle archive version");
+        } // end if
+        if (letters == 0) {
+            this.alphabet = Alphabet.LATIN;
+        } else {
+            ByteBuffer buffer = read(HEADER_BYTES, letters * Character.BYTES);
+            char[] chars = new char[letters];
+            buffer.asCharBuffer().get(chars);
+            try {
+                this.alphabet = Alphabet.forLetters(new String(chars));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("puzzle archive has a damaged alphabet", e);
+            } // end try/catch
+        } // end if/else
+        this.headerBytes = headerBytes(letters);
+        this.codeBits = codeBits(alphabet);
+        ByteBuffer trailer = read(fileSize - TRAILER_BYTES, TRAILER_BYTES);
+        long records = trailer.getLong();
+        this.indexOffset = trailer.getLong();
+        if (trailer.getInt() != INDEX_MAGIC || records > Integer.MAX_VALUE
+                || indexOffset + records * Long.BYTES != fileSize - TRAILER_BYTES) {
+            throw new IOException("puzzle archive has no index, it may still be "
+                    + "being written");
+        } // end if
+        this.count = (int) records;
+        this.segments = new MappedByteBuffer[(int) ((fileSize - 1) / SEGMENT_BYTES) + 1];
+    } // end constructor
+
+    // post: archive in file has been opened for reading
+    public static PuzzleArchive open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PuzzleArchive(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        } // end try/catch
+    } // end open
+
+    // post: length bytes from position have been read into a new buffer,
+    // ready to be read
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("puzzle archive is truncated");
+            } // end if
+        } // end while
+        return buffer.flip();
+    } // end read
+
+    // post: segment holding position has been returned, mapped the first
+    // time it is needed
+    private synchronized MappedByteBuffer segment(long position) throws IOException {
+        int s = (int) (position / SEGMENT_BYTES);
+        if (segments[s] == null) {
+            long start = s * SEGMENT_BYTES;
+            long length = Math.min(fileSize - start, SEGMENT_BYTES + MAX_RECORD_BYTES);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        } // end if
+        return segments[s];
+    } // end segment
+
+    // post: number of puzzles in the archive has been returned
+    public int size() {
+        return count;
+    } // end size
+
+    // post: offset of the index, where the records end, has been returned
+    long indexOffset() {
+        return indexOffset;
+    } // end indexOffset
+
+    // pre: 0 <= i < size()
+    // post: offset of the record of puzzle i has been returned
+    public long offset(int i) throws IOException {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("puzzle " + i + " of " + count);
+        } // end if
+        long position = indexOffset + (long) i * Long.BYTES;
+        return segment(position).getLong((int) (position % SEGMENT_BYTES));
+    } // end offset
+
+    // pre: 0 <= i < size()
+    // post: view of puzzle i, read in place, has been returned
+    public ArchivedPuzzle get(int i) throws IOException {
+        return at(offset(i));
+    } // end get
+
+    // pre: offset is that of a record, as returned by offset or by
+    // PuzzleArchiveWriter.append
+    // post: view of the puzzle stored there has been returned
+    public ArchivedPuzzle at(long offset) throws IOException {
+        if (offset < headerBytes || offset >= indexOffset) {
+            throw new IOException("no puzzle record at " + offset);
+        } // end if
+        return new ArchivedPuzzle(this, segment(offset), (int) (offset % SEGMENT_BYTES));
+    } // end at
+
+    // post: archive has been closed, views obtained from it must no longer
+    // be used
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    } // end close
+
+    // post: bytes before the first record of an archive of that many
+    // letters have been returned
+    static int headerBytes(int letters) {
+        return HEADER_BYTES + letters * Character.BYTES;
+    } // end headerBytes
+
+    // post: bits a cell takes in an archive of alphabet have been returned,
+    // enough for the code of a hole
+    static int codeBits(Alphabet alphabet) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(alphabet.size() + 1);
+    } // end codeBits
+
+    // post: number of bytes holding the cells of a grid at codeBits a cell
+    // has been returned, including the spare byte
+    static int gridBytes(int cells, int codeBits) {
+        return (int) (((long) cells * codeBits + Byte.SIZE - 1) / Byte.SIZE) + 1;
+    } // end gridBytes
+
+    // post: code of c in an archive of alphabet has been returned
+    static int code(Alphabet alphabet, char c) {
+        if (c == Grid.EMPTY) {
+            return 0;
+        } // end if
+        if (c == Grid.HOLE) {
+            return alphabet.size() + 1;
+        } // end if
+        int code = alphabet.code(c);
+        if (code == 0) {
+            throw new IllegalArgumentException("puzzle archive of alphabet " + alphabet
+                    + " cannot hold " + c);
+        } // end if
+        return code;
+    } // end code
+
+    // post: character of code has been returned
+    private char letter(int code) {
+        return code == alphabet.size() + 1 ? Grid.HOLE : alphabet.letter(code);
+    } // end letter
+
+    // post: alphabet the letters of the archive are coded in has been
+    // returned
+    public Alphabet getAlphabet() {
+        return alphabet;
+    } // end getAlphabet
+
+    // begin ArchivedPuzzle class - a puzzle read in place from the mapped
+    // archive; every call decodes only what it returns
+    public static final class ArchivedPuzzle {
+        private final PuzzleArchive archive;
+        private final ByteBuffer buffer;
+        private final int base;
+
+        // begin constructor
+        private ArchivedPuzzle(PuzzleArchive archive, ByteBuffer buffer, int base) {
+            this.archive = archive;
+            this.buffer = buffer;
+            this.base = base;
+        } // end constructor
+
+        // get methods
+        public int getWidth() {
+            return Short.toUnsignedInt(buffer.getShort(base + 4));
+        } // end getWidth
+        public int getHeight() {
+            return Short.toUnsignedInt(buffer.getShort(base + 6));
+        } // end getHeight
+        public int getWordCount() {
+            return Short.toUnsignedInt(buffer.getShort(base + 8));
+        } // end getWordCount
+
+        // post: size of the record in bytes has been returned
+        public int getRecordBytes() {
+            return buffer.getInt(base);
+        } // end getRecordBytes
+
+        // pre: 0 <= x < getWidth(), 0 <= y < getHeight()
+        // post: character at column x, row y has been returned
+        public char getChar(int x, int y) {
+            int codeBits = archive.codeBits;
+            long bit = ((long) y * getWidth() + x) * codeBits;
+            int at = base + RECORD_HEADER_BYTES + (int) (bit >>> 3);
+            int pair = (buffer.get(at) & 0xFF) | (buffer.get(at + 1) & 0xFF) << 8;
+            return archive.letter(pair >>> (int) (bit & 7) & (1 << codeBits) - 1);
+        } // end getChar
+
+        // post: offset of the entry of word i has been returned
+        private int entry(int i) {
+            if (i < 0 || i >= getWordCount()) {
+                throw new IndexOutOfBoundsException("word " + i + " of " + getWordCount());
+            } // end if
+            return base + RECORD_HEADER_BYTES
+                    + gridBytes(getWidth() * getHeight(), archive.codeBits) + i * ENTRY_BYTES;
+        } // end entry
+
+        // pre: 0 <= i < getWordCount()
+        // post: method has returned true if word i was placed
+        public boolean isPlaced(int i) {
+            return buffer.get(entry(i)) != FAILED;
+        } // end isPlaced
+
+        // pre: 0 <= i < getWordCount()
+        // post: word i has been returned, read from the grid if it was
+        // placed
+        public String getWord(int i) {
+            int entry = entry(i);
+            int length = Short.toUnsignedInt(buffer.getShort(entry + 2));
+            StringBuilder word = new StringBuilder(length);
+            if (buffer.get(entry) == FAILED) {
+                int letters = base + RECORD_HEADER_BYTES
+                        + gridBytes(getWidth() * getHeight(), archive.codeBits)
+                        + getWordCount() * ENTRY_BYTES
+                        + Short.toUnsignedInt(buffer.getShort(entry + 4));
+                for (int k = 0; k < length; k++) {
+                    word.append(archive.letter(buffer.get(letters + k) & 0xFF));
+                } // end for
+            } else {
+                Direction direction = DIRECTIONS[buffer.get(entry)];
+                int x = Short.toUnsignedInt(buffer.getShort(entry + 4));
+                int y = Short.toUnsignedInt(buffer.getShort(entry + 6));
+                for (int k = 0; k < length; k++) {
+                    word.append(getChar(x + k * direction.getDx(), y + k * direction.getDy()));
+                } // end for
+            } // end if/else
+            return word.toString();
+        } // end getWord
+
+        // pre: 0 <= i < getWordCount()
+        // post: placement of word i has been returned, null if it failed
+        public Placement getPlacement(int i) {
+            int entry = entry(i);
+            if (buffer.get(entry) == FAILED) {
+                return null;
+            } // end if
+            return new Placement(getWord(i), Short.toUnsignedInt(buffer.getShort(entry + 4)),
+                    Short.toUnsignedInt(buffer.getShort(entry + 6)),
+                    DIRECTIONS[buffer.get(entry)]);
+        } // end getPlacement
+
+        // post: puzzle has been decoded in full and returned, its solution
+        // rebuilt from the placements - a puzzle with holes gets a mask of
+        // the shape they draw
+        public Puzzle toPuzzle() {
+            int width = getWidth();
+            int height = getHeight();
+            char[][] rows = new char[height][width];
+            boolean[][] shape = new boolean[height][width];
+            boolean masked = false;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    rows[y][x] = getChar(x, y);
+                    shape[y][x] = rows[y][x] != Grid.HOLE;
+                    masked |= !shape[y][x];
+                } // end for
+            } // end for
+            Grid grid = masked ? new Grid(new GridMask(shape), archive.alphabet)
+                    : new Grid(width, height, archive.alphabet);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (shape[y][x]) {
+                        grid.set(grid.index(x, y), rows[y][x]);
+                    } // end if
+                } // end for
+            } // end for
+            List<String> words = new ArrayList<>();
+            List<String> failedWords = new ArrayList<>();
+            List<Placement> placements = new ArrayList<>();
+            for (int i = 0; i < getWordCount(); i++) {
+                Placement placement = getPlacement(i);
+                if (placement == null) {
+                    words.add(getWord(i));
+                    failedWords.add(getWord(i));
+                    continue;
+                } // end if
+                words.add(placement.getWord());
+                placements.add(placement);
+                for (int k = 0; k < placement.getLength(); k++) {
+                    int cell = placement.cell(k, width);
+                    grid.setWordChar(cell, grid.get(cell));
+                } // end for
+            } // end for
+            return new Puzzle(grid, words, failedWords, placements);
+        } // end toPuzzle
+    } // end ArchivedPuzzle class
+
+    // pre: args = archive file [index [solution]]
+    // post: number of puzzles in the archive, or puzzle index as text, or
+    // its solution, has been printed
+    public static void run(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3
+                || (args.length == 3 && !args[2].equals("solution"))) {
+            System.err.println("usage: archive <file> [<index> [solution]]");
+            return;
+        } // end if
+        try (PuzzleArchive archive = open(Path.of(args[0]))) {
+            if (args.length == 1) {
+                System.out.println(archive.size() + " puzzles");
+                return;
+            } // end if
+            Puzzle puzzle = archive.get(Integer.parseInt(args[1])).toPuzzle();
+            System.out.print(new PuzzleRenderer(PuzzleRenderer.Format.TEXT)
+                    .render(puzzle, args.length == 3));
+        } // end try
+    } // end run
+} // end PuzzleArchive class
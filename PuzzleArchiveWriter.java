@@ -0,0 +1,267 @@
+// Word Search Generator
+// PuzzleArchiveWriter - appends puzzles to a binary archive
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+// begin PuzzleArchiveWriter class - writes puzzles in the binary format
+// read by PuzzleArchive: letters packed five bits to a cell for A to Z,
+// as few as the alphabet of the archive needs for others, and the
+// solution kept as a table of placements rather than a second grid, so a
+// MEDIUM puzzle takes a few hundred bytes instead of several kilobytes of
+// text. The index of record offsets is written when the writer is closed.
+//
+// the archive is written to a temporary file beside it, named as it with
+// ".tmp" added, which is moved over it once closed and forced to disk, so
+// a reader sees either the archive as it was or with every puzzle
+// appended, and a writer killed or never closed leaves the file as it
+// was. Appending copies the records already there into the temporary
+// file first.
+//
+// a writer is not thread safe
+public final class PuzzleArchiveWriter implements Closeable {
+    private final Path file;
+    private final Path temp;
+    private final FileChannel channel;
+    private final Alphabet alphabet;
+    private final int codeBits;
+    private long position;
+    private long[] offsets = new long[1024];
+    private int count;
+    // record being encoded, grown as needed and reused
+    private ByteBuffer record = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+
+    // constructor - puzzles appended make a new archive, which replaces
+    // any file at file once the writer is closed
+    public PuzzleArchiveWriter(Path file) throws IOException {
+        this(file, false);
+    } // end constructor
+
+    // constructor - if append is true and file is an archive, puzzles are
+    // added after those already in it, whose index is rewritten on close
+    public PuzzleArchiveWriter(Path file, boolean append) throws IOException {
+        this(file, append, Alphabet.LATIN);
+    } // end constructor
+
+    // constructor - as above, for puzzles in the letters of alphabet; an
+    // archive appended to must be of the same alphabet
+    public PuzzleArchiveWriter(Path file, boolean append, Alphabet alphabet)
+            throws IOException {
+        this.file = file;
+        this.alphabet = alphabet;
+        this.codeBits = PuzzleArchive.codeBits(alphabet);
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            if (append && Files.exists(file)) {
+                copyRecords(file);
+            } else {
+                writeHeader();
+            } // end if/else
+        } catch (IOException | RuntimeException e) {
+            discard();
+            throw e;
+        } // end try/catch
+    } // end constructor
+
+    // post: header and records of the archive in source, not its index,
+    // have been copied to the temporary file and their offsets kept
+    private void copyRecords(Path source) throws IOException {
+        try (PuzzleArchive existing = PuzzleArchive.open(source);
+                FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (!existing.getAlphabet().getLetters().equals(alphabet.getLetters())) {
+                throw new IOException(source + " holds puzzles of alphabet "
+                        + existing.getAlphabet() + ", not " + alphabet);
+            } // end if
+            count = existing.size();
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length, count * 2));
+            for (int i = 0; i < count; i++) {
+                offsets[i] = existing.offset(i);
+            } // end for
+            // new records follow the old ones where their index was
+            long indexOffset = existing.indexOffset();
+            while (position < indexOffset) {
+                position += in.transferTo(position, indexOffset - position, channel);
+            } // end while
+            channel.position(position);
+        } // end try
+    } // end copyRecords
+
+    // post: header of an archive of the writer's alphabet has been written
+    private void writeHeader() throws IOException {
+        String letters = alphabet.getLetters();
+        ByteBuffer header = ByteBuffer.allocate(PuzzleArchive.headerBytes(letters.length()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(PuzzleArchive.MAGIC).putShort(PuzzleArchive.VERSION)
+                .putShort((short) letters.length());
+        for (int i = 0; i < letters.length(); i++) {
+            header.putChar(letters.charAt(i));
+        } // end for
+        writeFully(header.flip());
+    } // end writeHeader
+
+    // post: temporary file has been closed and deleted, leaving the
+    // archive as it was
+    private void discard() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(temp);
+        } // end try/finally
+    } // end discard
+
+    // pre: cells of puzzle hold letters of the writer's alphabet, its grid
+    // and words fit the limits of PuzzleArchive
+    // post: puzzle has been appended and the offset of its record, which
+    // PuzzleArchive.at accepts, has been returned
+    public long append(Puzzle puzzle) throws IOException {
+        encode(puzzle);
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        } // end if
+        long offset = position;
+        writeFully(record.flip());
+        offsets[count++] = offset;
+        return offset;
+    } // end append
+
+    // post: every puzzle has been appended
+    public void appendAll(Iterable<Puzzle> puzzles) throws IOException {
+        for (Puzzle puzzle : puzzles) {
+            append(puzzle);
+        } // end for
+    } // end appendAll
+
+    // post: number of puzzles in the archive has been returned
+    public int size() {
+        return count;
+    } // end size
+
+    // post: index of record offsets and the trailer have been written,
+    // forced to disk and the archive moved over file
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        } // end if
+        try {
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++) {
+                if (index.remaining() < Long.BYTES) {
+                    writeFully(index.flip());
+                    index.clear();
+                } // end if
+                index.putLong(offsets[i]);
+            } // end for
+            writeFully(index.flip());
+            ByteBuffer trailer = ByteBuffer.allocate(PuzzleArchive.TRAILER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putLong(count).putLong(indexOffset).putInt(PuzzleArchive.INDEX_MAGIC);
+            writeFully(trailer.flip());
+            channel.force(true);
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            discard();
+            throw e;
+        } // end try/catch
+    } // end close
+
+    // post: puzzle has been encoded into record, see PuzzleArchive for
+    // the layout
+    private void encode(Puzzle puzzle) {
+        Grid grid = puzzle.grid();
+        List<String> words = puzzle.getWords();
+        List<Placement> placements = puzzle.getPlacements();
+        if (grid.getWidth() > PuzzleArchive.MAX_SIDE || grid.getHeight() > PuzzleArchive.MAX_SIDE
+                || words.size() > PuzzleArchive.MAX_SIDE) {
+            throw new IllegalArgumentException("puzzle too large for the archive format");
+        } // end if
+        int gridBytes = PuzzleArchive.gridBytes(grid.size(), codeBits);
+        int failedBytes = 0;
+        for (String word : puzzle.getFailedWords()) {
+            failedBytes += word.length();
+        } // end for
+        long length = (long) PuzzleArchive.RECORD_HEADER_BYTES + gridBytes
+                + (long) words.size() * PuzzleArchive.ENTRY_BYTES + failedBytes;
+        if (length > PuzzleArchive.MAX_RECORD_BYTES || failedBytes > PuzzleArchive.MAX_SIDE) {
+            throw new IllegalArgumentException("puzzle too large for the archive format");
+        } // end if
+        if (record.capacity() < length) {
+            record = ByteBuffer.allocate(Integer.highestOneBit((int) length) * 2)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } // end if
+        record.clear();
+        record.putInt((int) length).putShort((short) grid.getWidth())
+                .putShort((short) grid.getHeight()).putShort((short) words.size())
+                .putShort((short) failedBytes);
+
+        // cells codeBits each, low bits first, then a spare byte so a
+        // reader can always load two bytes
+        long bits = 0;
+        int pending = 0;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            bits |= (long) PuzzleArchive.code(alphabet, grid.get(cell)) << pending;
+            pending += codeBits;
+            while (pending >= Byte.SIZE) {
+                record.put((byte) bits);
+                bits >>>= Byte.SIZE;
+                pending -= Byte.SIZE;
+            } // end while
+        } // end for
+        if (pending > 0) {
+            record.put((byte) bits);
+        } // end if
+        record.put((byte) 0);
+
+        // one entry per word: placed words in the order of the placements,
+        // the rest pointing at their letters after the table
+        int next = 0;
+        int failedOffset = 0;
+        StringBuilder failed = new StringBuilder(failedBytes);
+        for (String word : words) {
+            if (word.length() > PuzzleArchive.MAX_SIDE) {
+                throw new IllegalArgumentException("word too long for the archive format");
+            } // end if
+            if (next < placements.size() && placements.get(next).getWord().equals(word)) {
+                Placement placement = placements.get(next++);
+                record.put((byte) placement.getDirection().ordinal()).put((byte) 0)
+                        .putShort((short) word.length()).putShort((short) placement.getX())
+                        .putShort((short) placement.getY());
+            } else {
+                record.put(PuzzleArchive.FAILED).put((byte) 0)
+                        .putShort((short) word.length()).putShort((short) failedOffset)
+                        .putShort((short) 0);
+                failedOffset += word.length();
+                failed.append(word);
+            } // end if/else
+        } // end for
+        if (failedOffset != failedBytes) {
+            throw new IllegalArgumentException("placements do not match the word list");
+        } // end if
+        for (int i = 0; i < failed.length(); i++) {
+            record.put((byte) PuzzleArchive.code(alphabet, failed.charAt(i)));
+        } // end for
+    } // end encode
+
+    // post: every remaining byte of buffer has been written
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        } // end while
+    } // end writeFully
+} // end PuzzleArchiveWriter class
@@ -0,0 +1,243 @@
+// Word Search Generator
+// PuzzleCache - size bounded cache of seeded puzzles
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// begin PuzzleCache class - keeps the most recently used seeded puzzles
+// in memory by PuzzleKey, and optionally every puzzle in a directory, so
+// a repeated request returns the stored puzzle instead of generating it
+// again
+//
+// the cache may be shared between threads; two threads missing on the
+// same key at once may both generate the puzzle, which is harmless as
+// both produce the same one
+public final class PuzzleCache {
+    // first line of every file written to the cache directory, files of
+    // other versions are treated as missing
+    private static final String HEADER = "wordsearch-puzzle 3";
+
+    private final Map<PuzzleKey, Puzzle> entries;
+    private final Path directory; // null if puzzles are only kept in memory
+    private long hits;
+    private long misses;
+
+    // begin constructor - at most maxEntries puzzles are kept in memory
+    public PuzzleCache(int maxEntries) {
+        this(maxEntries, null);
+    } // end constructor
+
+    // constructor - puzzles are also written to directory, which is read
+    // when a puzzle is not in memory
+    public PuzzleCache(int maxEntries, Path directory) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        } // end if
+        // access ordered map which drops its least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PuzzleKey, Puzzle> eldest) {
+                return size() > maxEntries;
+            } // end removeEldestEntry
+        };
+        this.directory = directory;
+    } // end constructor
+
+    // pre: words is not empty
+    // post: puzzle engine.generate(words, seed) would return has been
+    // returned, from memory or disk if it was generated before
+    public Puzzle generate(PuzzleEngine engine, List<String> words, long seed)
+            throws IOException {
+        return get(engine.key(words, seed), () -> engine.generate(words, seed));
+    } // end generate
+
+    // pre: key identifies the puzzle generator returns
+    // post: puzzle stored under key has been returned, or generated by
+    // generator and stored under key if there was none
+    public Puzzle get(PuzzleKey key, Supplier<Puzzle> generator) throws IOException {
+        Puzzle puzzle = get(key);
+        if (puzzle == null) {
+            puzzle = generator.get();
+            put(key, puzzle);
+        } // end if
+        return puzzle;
+    } // end get
+
+    // post: puzzle stored under key has been returned, null if none
+    public Puzzle get(PuzzleKey key) throws IOException {
+        synchronized (entries) {
+            Puzzle puzzle = entries.get(key);
+            if (puzzle != null) {
+                hits++;
+                return puzzle;
+            } // end if
+        } // end synchronized
+        Puzzle puzzle = directory == null ? null : read(file(key));
+        synchronized (entries) {
+            if (puzzle != null) {
+                hits++;
+                entries.put(key, puzzle);
+            } else {
+                misses++;
+            } // end if/else
+        } // end synchronized
+        return puzzle;
+    } // end get
+
+    // post: puzzle has been stored under key in memory and on disk
+    public void put(PuzzleKey key, Puzzle puzzle) throws IOException {
+        synchronized (entries) {
+            entries.put(key, puzzle);
+        } // end synchronized
+        if (directory != null) {
+            write(file(key), puzzle);
+        } // end if
+    } // end put
+
+    // get methods for cache statistics
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        } // end synchronized
+    } // end getHits
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        } // end synchronized
+    } // end getMisses
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        } // end synchronized
+    } // end size
+
+    // post: path of the file storing key has been returned
+    private Path file(PuzzleKey key) {
+        return directory.resolve(key + ".puzzle");
+    } // end file
+
+    // post: puzzle has been written to file through a temporary file, so
+    // readers never see a partly written puzzle
+    //
+    // file format, one item per line:
+    //     wordsearch-puzzle 3
+    //     <width> <height> <1 if the grid has a mask, 0 otherwise>
+    //     <letters of the grid's alphabet>
+    //     <height rows of puzzle characters, holes outside a mask as ' '>
+    //     <words separated by spaces>
+    //     <failed words separated by spaces>
+    //     <one line per placement: word x y direction>
+    private void write(Path file, Puzzle puzzle) throws IOException {
+        Files.createDirectories(directory);
+        Grid grid = puzzle.grid();
+        StringBuilder sb = new StringBuilder(grid.size() * 2 + 64);
+        sb.append(HEADER).append('\n');
+        sb.append(grid.getWidth()).append(' ').append(grid.getHeight()).append(' ')
+                .append(grid.getMask() == null ? 0 : 1).append('\n');
+        sb.append(grid.getAlphabet().getLetters()).append('\n');
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                sb.append(grid.get(x, y));
+            } // end inner for
+            sb.append('\n');
+        } // end outer for
+        sb.append(String.join(" ", puzzle.getWords())).append('\n');
+        sb.append(String.join(" ", puzzle.getFailedWords())).append('\n');
+        for (Placement placement : puzzle.getPlacements()) {
+            sb.append(placement.getWord()).append(' ').append(placement.getX())
+                    .append(' ').append(placement.getY()).append(' ')
+                    .append(placement.getDirection()).append('\n');
+        } // end for
+
+        Path temp = Files.createTempFile(directory, "puzzle", ".tmp");
+        try (Writer output = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            output.append(sb);
+        } // end try
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } // end try/catch
+    } // end write
+
+    // post: puzzle stored in file has been returned, null if there is no
+    // such file or it is not a puzzle written by this cache - the grid has
+    // the alphabet it was written with and, if it had one, a mask of the
+    // shape its holes draw
+    private static Puzzle read(Path file) throws IOException {
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(input.readLine())) {
+                return null;
+            } // end if
+            String[] size = input.readLine().split(" ");
+            int width = Integer.parseInt(size[0]);
+            int height = Integer.parseInt(size[1]);
+            boolean masked = size[2].equals("1");
+            Alphabet alphabet = Alphabet.forLetters(input.readLine());
+            String[] rows = new String[height];
+            boolean[][] shape = new boolean[height][width];
+            for (int y = 0; y < height; y++) {
+                rows[y] = input.readLine();
+                for (int x = 0; x < width; x++) {
+                    shape[y][x] = rows[y].charAt(x) != Grid.HOLE;
+                } // end for
+            } // end for
+            Grid grid = masked ? new Grid(new GridMask(shape), alphabet)
+                    : new Grid(width, height, alphabet);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (!masked || shape[y][x]) {
+                        grid.set(grid.index(x, y), rows[y].charAt(x));
+                    } // end if
+                } // end for
+            } // end for
+            List<String> words = splitWords(input.readLine());
+            List<String> failedWords = splitWords(input.readLine());
+            List<Placement> placements = new ArrayList<>();
+            String line;
+            while ((line = input.readLine()) != null && !line.isEmpty()) {
+                String[] fields = line.split(" ");
+                Placement placement = new Placement(fields[0], Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]), Direction.valueOf(fields[3]));
+                // word cells of the solution are those of the placements
+                for (int i = 0; i < placement.getLength(); i++) {
+                    int cell = placement.cell(i, width);
+                    grid.setWordChar(cell, grid.get(cell));
+                } // end for
+                placements.add(placement);
+            } // end while
+            return new Puzzle(grid, words, failedWords, placements);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // truncated or foreign file, treat as missing
+            return null;
+        } // end try/catch
+    } // end read
+
+    // post: words of a space separated line have been returned
+    private static List<String> splitWords(String line) {
+        if (line == null || line.isEmpty()) {
+            return new ArrayList<>();
+        } // end if
+        return Arrays.asList(line.split(" "));
+    } // end splitWords
+} // end PuzzleCache class
@@ -0,0 +1,369 @@
+// Word Search Generator
+// PuzzleEditor - adds and removes words of a puzzle in place
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// begin PuzzleEditor class - keeps a puzzle open so single words can be
+// added, removed or replaced without generating it again
+//
+// every cell counts the placed words running through it. A new word takes
+// cells no word holds, crossing at most one word as checkPath allows, and
+// a cell whose count drops to zero goes back to the filler. After an edit
+// only the cells given back, and filler cells which spell a word with the
+// letters just written, are drawn again, each checked along the four lines
+// through it; an edit costs about the length of the word times that of the
+// longest word. An added word is linked before those lines are read, so a
+// stray copy of it through the cells it wrote is drawn again too; a copy
+// the filler spelled elsewhere before the word was added stays, as finding
+// it would mean reading the whole grid on every edit.
+//
+// linking every word into an automaton costs more than an edit of a large
+// puzzle, so words added since the last full link go into a second small
+// one, and removed words stay linked until the next full link - the filler
+// avoiding a word no longer in the puzzle does no harm
+//
+// an editor is not thread safe
+public final class PuzzleEditor {
+    // words added before every word is linked again
+    private static final int RELINK_AFTER = 32;
+
+    private final Grid grid;
+    // number of placed words through each cell
+    private final int[] owners;
+    // cells of placed words by letter, for crossings
+    private final LetterIndex letters = new LetterIndex();
+    private final List<String> words;
+    private final List<String> failedWords;
+    // placed words in the order of words
+    private final List<Placement> placements;
+    private final DirectionWeights directions;
+    private final GridFiller filler;
+    // alphabet of the filler, which upper cases words as the generator did
+    private final Alphabet alphabet;
+    private final RandomGenerator rand;
+    // words added since the last full link, relinked with every word once
+    // there are more than RELINK_AFTER
+    private final List<String> recentWords = new ArrayList<>();
+    private WordAutomaton linkedWords;
+    // linkedWords and recentWords as GridFiller checks them
+    private WordAutomaton[] puzzleWords;
+    // cells emptied by the edit in progress, to be drawn again
+    private int[] freed = new int[64];
+    private int freedCount;
+    // cells whose letter or solution the last edit changed, may repeat
+    private int[] changed = new int[64];
+    private int changedCount;
+
+    // begin constructor - words are placed with the classic directions and
+    // cells drawn again by the default filler
+    public PuzzleEditor(Puzzle puzzle) {
+        this(puzzle, DirectionWeights.CLASSIC, GridFiller.DEFAULT, new SplittableRandom());
+    } // end constructor
+
+    // constructor - words are placed and cells drawn again as engine, which
+    // should be the one puzzle came from, would, using rand
+    public PuzzleEditor(Puzzle puzzle, PuzzleEngine engine, RandomGenerator rand) {
+        this(puzzle, engine.getDirections(), engine.getFiller(), rand);
+    } // end constructor
+
+    // constructor - puzzle is copied, its placements telling which cells
+    // belong to which word
+    public PuzzleEditor(Puzzle puzzle, DirectionWeights directions, GridFiller filler,
+                        RandomGenerator rand) {
+        this.grid = puzzle.getGrid();
+        this.owners = new int[grid.size()];
+        this.words = new ArrayList<>(puzzle.getWords());
+        this.failedWords = new ArrayList<>(puzzle.getFailedWords());
+        this.placements = new ArrayList<>(puzzle.getPlacements());
+        this.directions = directions;
+        this.filler = filler;
+        this.alphabet = filler.getLetters().getAlphabet();
+        this.rand = rand;
+        for (Placement placement : placements) {
+            for (int i = 0; i < placement.getLength(); i++) {
+                int cell = placement.cell(i, grid.getWidth());
+                if (owners[cell]++ == 0) {
+                    letters.add(grid.get(cell), cell);
+                } // end if
+            } // end for
+        } // end for
+        relink();
+    } // end constructor
+
+    // pre: word is not empty and no longer than the grid is wide
+    // post: word in upper case has been added to the words and placed
+    // across a word or at a random point, or recorded as failed if neither
+    // was clear; method has returned true if it was placed
+    public boolean addWord(String word) {
+        word = checkWord(word);
+        changedCount = 0;
+        boolean placed = add(word);
+        finishEdit();
+        return placed;
+    } // end addWord
+
+    // post: one copy of word, in upper case, has been removed from the
+    // words and the cells only it held drawn again; method has returned
+    // false if the puzzle has no such word
+    public boolean removeWord(String word) {
+        changedCount = 0;
+        boolean removed = remove(alphabet.normalize(word));
+        if (removed) {
+            finishEdit();
+        } // end if
+        return removed;
+    } // end removeWord
+
+    // pre: oldWord is in the puzzle, newWord is as addWord requires
+    // post: oldWord has been removed and newWord added as above, with the
+    // cells given up by oldWord free for newWord before any is drawn
+    // again; method has returned true if newWord was placed
+    public boolean replaceWord(String oldWord, String newWord) {
+        newWord = checkWord(newWord);
+        changedCount = 0;
+        if (!remove(alphabet.normalize(oldWord))) {
+            throw new IllegalArgumentException("word not in puzzle: " + oldWord);
+        } // end if
+        boolean placed = add(newWord);
+        finishEdit();
+        return placed;
+    } // end replaceWord
+
+    // post: word has been returned normalized by the alphabet, or an
+    // exception thrown if it cannot be placed in the grid
+    private String checkWord(String word) {
+        word = alphabet.normalize(word);
+        if (word.isEmpty()) {
+            throw new IllegalArgumentException("word must not be empty");
+        } // end if
+        int side = Math.min(grid.getWidth(), grid.getHeight());
+        if (word.length() > side) {
+            throw new IllegalArgumentException("grid of " + side
+                    + " is too small for a word of " + word.length() + " letters");
+        } // end if
+        return word;
+    } // end checkWord
+
+    // post: word has been added and placed or recorded as failed, filler
+    // cells now spelling a word through it, a stray copy of it included,
+    // have been emptied; method has returned true if it was placed
+    private boolean add(String word) {
+        words.add(word);
+        recentWords.add(word);
+        if (recentWords.size() > RELINK_AFTER) {
+            relink();
+        } else {
+            puzzleWords = new WordAutomaton[] {
+                linkedWords, GridFiller.link(recentWords, alphabet)
+            };
+        } // end if/else
+        Placement placement = findPlacement(word);
+        if (placement == null) {
+            failedWords.add(word);
+        } else {
+            placements.add(placement);
+            int width = grid.getWidth();
+            for (int i = 0; i < word.length(); i++) {
+                int cell = placement.cell(i, width);
+                char c = word.charAt(i);
+                if (owners[cell]++ == 0) {
+                    letters.add(c, cell);
+                    addChanged(cell);
+                } // end if
+                grid.setWordChar(cell, c);
+            } // end for
+            // word is linked by now, so this also finds stray copies of it
+            // through the cells written - the placement itself is on word
+            // cells only, which free leaves alone
+            for (int i = 0; i < word.length(); i++) {
+                filler.spelledThrough(grid, puzzleWords, placement.cell(i, width), this::free);
+            } // end for
+        } // end if/else
+        return placement != null;
+    } // end add
+
+    // post: one copy of word has been removed, cells only its placement
+    // held have been emptied; method has returned false if there was none
+    private boolean remove(String word) {
+        if (!words.remove(word)) {
+            return false;
+        } // end if
+        // a failed copy holds no cells, so it goes first
+        if (failedWords.remove(word)) {
+            return true;
+        } // end if
+        for (int p = 0; p < placements.size(); p++) {
+            Placement placement = placements.get(p);
+            if (placement.getWord().equals(word)) {
+                placements.remove(p);
+                for (int i = 0; i < word.length(); i++) {
+                    int cell = placement.cell(i, grid.getWidth());
+                    if (--owners[cell] == 0) {
+                        letters.remove(word.charAt(i), cell);
+                        grid.clear(cell);
+                        addFreed(cell);
+                    } // end if
+                } // end for
+                break;
+            } // end if
+        } // end for
+        return true;
+    } // end remove
+
+    // post: every word of the puzzle has been linked afresh
+    private void relink() {
+        linkedWords = GridFiller.link(words, alphabet);
+        recentWords.clear();
+        puzzleWords = new WordAutomaton[] {linkedWords};
+    } // end relink
+
+    // post: placement for word crossing a placed word, or else at one of
+    // 101 random points, has been returned as the generator would choose
+    // it, null if no path was clear
+    private Placement findPlacement(String word) {
+        Direction direction = directions.pick(rand);
+        Placement crossing = findCrossing(word, direction);
+        if (crossing != null) {
+            return crossing;
+        } // end if
+        int length = word.length();
+        for (int i = 0; i <= 100; i++) {
+            direction = directions.pick(rand);
+            int x = direction.firstX(length)
+                    + rand.nextInt(direction.spanX(length, grid.getWidth()));
+            int y = direction.firstY(length)
+                    + rand.nextInt(direction.spanY(length, grid.getHeight()));
+            if (isClear(word, x, y, -1, direction)) {
+                return new Placement(word, x, y, direction);
+            } // end if
+        } // end for
+        return null;
+    } // end findPlacement
+
+    // post: placement for word through a cell of a placed word holding a
+    // matching char has been returned, trying direction before every
+    // other enabled direction, null if none was clear
+    private Placement findCrossing(String word, Direction direction) {
+        int width = grid.getWidth();
+        Direction[] enabled = directions.enabled();
+        // k = -1 tries the requested direction before the others
+        for (int k = -1; k < enabled.length; k++) {
+            Direction d = k < 0 ? direction : enabled[k];
+            if (k >= 0 && d == direction) {
+                continue; // already tried
+            } // end if
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                for (int m = 0; m < letters.count(c); m++) {
+                    int cell = letters.get(c, m);
+                    int startX = cell % width - i * d.getDx();
+                    int startY = cell / width - i * d.getDy();
+                    if (isClear(word, startX, startY, i, d)) {
+                        return new Placement(word, startX, startY, d);
+                    } // end if
+                } // end candidate for
+            } // end String traversal loop
+        } // end direction for
+        return null;
+    } // end findCrossing
+
+    // post: method has returned true if word fits the grid from column
+    // startX, row startY in direction and no placed word holds any of its
+    // cells, except the cell of the char at index which may hold that char
+    // - holes are checked cell by cell too, for a grid holding holes
+    // without a mask
+    private boolean isClear(String word, int startX, int startY, int index,
+                            Direction direction) {
+        if (!grid.fits(startX, startY, word.length(), direction)) {
+            return false;
+        } // end if
+        int step = direction.step(grid.getWidth());
+        int cell = grid.index(startX, startY);
+        for (int i = 0; i < word.length(); i++, cell += step) {
+            if (grid.get(cell) == Grid.HOLE
+                    || owners[cell] > 0 && (i != index || grid.get(cell) != word.charAt(i))) {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end isClear
+
+    // post: cell has been emptied to be drawn again if it holds a filler
+    // letter
+    private void free(int cell) {
+        if (owners[cell] == 0 && grid.get(cell) != Grid.EMPTY
+                && grid.get(cell) != Grid.HOLE) {
+            grid.clear(cell);
+            addFreed(cell);
+        } // end if
+    } // end free
+
+    // post: cell has been recorded as emptied and as changed
+    private void addFreed(int cell) {
+        if (freedCount == freed.length) {
+            freed = Arrays.copyOf(freed, freedCount * 2);
+        } // end if
+        freed[freedCount++] = cell;
+        addChanged(cell);
+    } // end addFreed
+
+    // post: cell has been recorded as changed by the current edit
+    private void addChanged(int cell) {
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        } // end if
+        changed[changedCount++] = cell;
+    } // end addChanged
+
+    // post: every cell emptied by the edit and not taken by a word since
+    // has been drawn again
+    private void finishEdit() {
+        filler.refill(grid, puzzleWords, freed, freedCount, rand);
+        freedCount = 0;
+    } // end finishEdit
+
+    // post: flat indexes of the cells whose letter or solution the last
+    // edit changed have been returned in increasing order, so a view can
+    // redraw only those
+    public int[] getChangedCells() {
+        return Arrays.stream(changed, 0, changedCount).sorted().distinct().toArray();
+    } // end getChangedCells
+
+    // post: immutable snapshot of the puzzle as edited so far has been
+    // returned
+    public Puzzle toPuzzle() {
+        return new Puzzle(grid, words, failedWords, placements);
+    } // end toPuzzle
+
+    // post: character at column x, row y of the puzzle has been returned
+    public char getPuzzleChar(int x, int y) {
+        return grid.get(x, y);
+    } // end getPuzzleChar
+
+    // post: character at column x, row y of the solution has been returned,
+    // '_' for cells which do not belong to a word
+    public char getSolutionChar(int x, int y) {
+        return grid.getSolutionChar(x, y, '_');
+    } // end getSolutionChar
+
+    // get methods - lists are read-only views
+    public int getDimensions() {
+        return grid.getWidth();
+    } // end getDimensions
+    public List<String> getWords() {
+        return Collections.unmodifiableList(words);
+    } // end getWords
+    public List<String> getFailedWords() {
+        return Collections.unmodifiableList(failedWords);
+    } // end getFailedWords
+    public List<Placement> getPlacements() {
+        return Collections.unmodifiableList(placements);
+    } // end getPlacements
+} // end PuzzleEditor class
@@ -0,0 +1,203 @@
+// Word Search Generator
+// PuzzleEngine - programmatic generation without console I/O
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// begin PuzzleEngine class - generates puzzles from a word list without
+// reading from a Scanner or writing to System.out; a fresh
+// WordSearchGenerator is used for every puzzle so the engine holds no
+// mutable state of its own and may be shared between threads
+//
+// by default words are placed with the fast heuristic of
+// WordSearchGenerator, which may drop words it cannot fit; an engine
+// created with a SearchBudget uses backtracking search instead and only
+// drops words when the search space or budget runs out
+public class PuzzleEngine {
+    // version of the generation algorithm, part of every PuzzleKey - must
+    // be raised whenever a change makes a seed produce a different puzzle
+    public static final int VERSION = 5;
+
+    private final Size size;
+    private final SearchBudget budget; // null for heuristic placement
+    private final WordOrder wordOrder;
+    private final DirectionWeights directions;
+    private final GridFiller filler;
+    // not part of the key, metrics do not change a puzzle
+    private final GenerationMetrics metrics;
+
+    // begin constructor
+    public PuzzleEngine() {
+        this(Size.MEDIUM);
+    } // end constructor
+
+    // constructor - size defines additional spaces appended to the
+    // length of the longest word
+    public PuzzleEngine(Size size) {
+        this(size, null);
+    } // end constructor
+
+    // constructor - words are placed by backtracking search limited by
+    // budget, or by the heuristic if budget is null
+    public PuzzleEngine(Size size, SearchBudget budget) {
+        this(size, budget, WordOrder.LENGTH_DESCENDING);
+    } // end constructor
+
+    // constructor - words are also placed in the order given by wordOrder
+    public PuzzleEngine(Size size, SearchBudget budget, WordOrder wordOrder) {
+        this(size, budget, wordOrder, DirectionWeights.CLASSIC);
+    } // end constructor
+
+    // constructor - the direction of every word is also drawn from
+    // directions
+    public PuzzleEngine(Size size, SearchBudget budget, WordOrder wordOrder,
+                        DirectionWeights directions) {
+        this(size, budget, wordOrder, directions, GridFiller.DEFAULT);
+    } // end constructor
+
+    // constructor - empty cells are also filled by filler
+    public PuzzleEngine(Size size, SearchBudget budget, WordOrder wordOrder,
+                        DirectionWeights directions, GridFiller filler) {
+        this(size, budget, wordOrder, directions, filler, GenerationMetrics.NONE);
+    } // end constructor
+
+    // constructor - placement and timing of every puzzle are also
+    // reported to metrics
+    public PuzzleEngine(Size size, SearchBudget budget, WordOrder wordOrder,
+                        DirectionWeights directions, GridFiller filler,
+                        GenerationMetrics metrics) {
+        this.size = size;
+        this.budget = budget;
+        this.wordOrder = wordOrder;
+        this.directions = directions;
+        this.filler = filler;
+        this.metrics = metrics;
+    } // end constructor
+
+    // post: engine identical to this one but placing words in wordOrder
+    // has been returned
+    public PuzzleEngine withWordOrder(WordOrder wordOrder) {
+        return new PuzzleEngine(size, budget, wordOrder, directions, filler,
+                metrics);
+    } // end withWordOrder
+
+    // post: engine identical to this one but drawing word directions from
+    // directions has been returned
+    public PuzzleEngine withDirections(DirectionWeights directions) {
+        return new PuzzleEngine(size, budget, wordOrder, directions, filler,
+                metrics);
+    } // end withDirections
+
+    // post: engine identical to this one but filling empty cells with
+    // filler has been returned
+    public PuzzleEngine withFiller(GridFiller filler) {
+        return new PuzzleEngine(size, budget, wordOrder, directions, filler,
+                metrics);
+    } // end withFiller
+
+    // post: engine identical to this one but reporting to metrics has been
+    // returned
+    public PuzzleEngine withMetrics(GenerationMetrics metrics) {
+        return new PuzzleEngine(size, budget, wordOrder, directions, filler,
+                metrics);
+    } // end withMetrics
+
+    // pre: words is not empty
+    // post: new puzzle has been generated from words and returned, using
+    // the random source of the calling thread
+    public Puzzle generate(List<String> words) {
+        return generate(words, ThreadLocalRandom.current());
+    } // end generate
+
+    // pre: words is not empty
+    // post: puzzle determined entirely by words, size and seed has been
+    // generated and returned
+    public Puzzle generate(List<String> words, long seed) {
+        return generate(words, new SplittableRandom(seed));
+    } // end generate
+
+    // pre: rand is not used by any other thread during this call
+    // post: puzzle has been generated using rand for every random choice
+    public Puzzle generate(List<String> words, RandomGenerator rand) {
+        return generate(words, size.getSize() + WordSearchGenerator.longestLength(words,
+                filler.getLetters().getAlphabet()), rand);
+    } // end generate
+
+    // pre: words is not empty, dimensions >= length of longest word, rand
+    // is not used by any other thread during this call
+    // post: puzzle of dimensions x dimensions has been generated using rand
+    // for every random choice, ignoring size
+    public Puzzle generate(List<String> words, int dimensions, RandomGenerator rand) {
+        WordSearchGenerator generator =
+                new WordSearchGenerator(rand, wordOrder, directions, filler);
+        generator.setMetrics(metrics);
+        generator.generate(words, dimensions, budget);
+        return new Puzzle(generator.getGrid(), generator.getWords(),
+                generator.getFailedWords(), generator.getPlacements());
+    } // end generate
+
+    // pre: words is not empty
+    // post: puzzle of the shape of mask determined entirely by words, mask
+    // and seed has been generated and returned
+    public Puzzle generate(List<String> words, GridMask mask, long seed) {
+        return generate(words, mask, new SplittableRandom(seed));
+    } // end generate
+
+    // pre: words is not empty, rand is not used by any other thread during
+    // this call
+    // post: puzzle of the shape of mask has been generated using rand for
+    // every random choice, ignoring size - words longer than any straight
+    // run of the shape are recorded as failed
+    public Puzzle generate(List<String> words, GridMask mask, RandomGenerator rand) {
+        WordSearchGenerator generator =
+                new WordSearchGenerator(rand, wordOrder, directions, filler);
+        generator.setMetrics(metrics);
+        generator.generate(words, mask, budget);
+        return new Puzzle(generator.getGrid(), generator.getWords(),
+                generator.getFailedWords(), generator.getPlacements());
+    } // end generate
+
+    // post: key identifying the puzzle generate(words, seed) returns has
+    // been returned
+    public PuzzleKey key(List<String> words, long seed) {
+        return PuzzleKey.of(settings(), words, seed);
+    } // end key
+
+    // post: key identifying the puzzle generate(words, mask, seed) returns
+    // has been returned
+    public PuzzleKey key(List<String> words, GridMask mask, long seed) {
+        return PuzzleKey.of(settings() + ";mask=" + mask, words, seed);
+    } // end key
+
+    // post: every setting which changes a generated puzzle has been
+    // returned in one string
+    private String settings() {
+        return "v" + VERSION + ";size=" + size + ";budget=" + budget
+                + ";order=" + wordOrder + ";directions=" + directions
+                + ";filler=" + filler;
+    } // end settings
+
+    // get methods
+    public Size getSize() {
+        return size;
+    } // end getSize
+    public SearchBudget getBudget() {
+        return budget;
+    } // end getBudget
+    public WordOrder getWordOrder() {
+        return wordOrder;
+    } // end getWordOrder
+    public DirectionWeights getDirections() {
+        return directions;
+    } // end getDirections
+    public GridFiller getFiller() {
+        return filler;
+    } // end getFiller
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    } // end getMetrics
+} // end PuzzleEngine class
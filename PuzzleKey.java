@@ -0,0 +1,94 @@
+// Word Search Generator
+// PuzzleKey - compact fingerprint of a seeded generation request
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// begin PuzzleKey class - 128 bit fingerprint of everything a seeded
+// puzzle depends on: the engine version and settings, the seed and the
+// set of words, so equal keys mean equal puzzles
+public final class PuzzleKey {
+    // number of bytes of the SHA-256 digest kept
+    private static final int LENGTH = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final byte[] bytes;
+
+    // begin constructor
+    private PuzzleKey(byte[] bytes) {
+        this.bytes = bytes;
+    } // end constructor
+
+    // post: key of words generated from seed with the given engine
+    // settings has been returned - words are upper cased and sorted first,
+    // as the generator does, so their order does not matter; upper casing
+    // follows Locale.ROOT, so a key does not change with the default locale
+    public static PuzzleKey of(String settings, List<String> words, long seed) {
+        List<String> canonical = new ArrayList<>(words.size());
+        for (String word : words) {
+            canonical.add(word.toUpperCase(Locale.ROOT));
+        } // end for
+        Collections.sort(canonical);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        } // end try/catch
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Long.toString(seed).getBytes(StandardCharsets.UTF_8));
+        for (String word : canonical) {
+            digest.update((byte) 0);
+            digest.update(word.getBytes(StandardCharsets.UTF_8));
+        } // end for
+        return new PuzzleKey(Arrays.copyOf(digest.digest(), LENGTH));
+    } // end of
+
+    // pre: hex is a key as returned by toString
+    // post: key has been parsed and returned
+    public static PuzzleKey parse(String hex) {
+        if (hex.length() != LENGTH * 2) {
+            throw new IllegalArgumentException("not a puzzle key: " + hex);
+        } // end if
+        byte[] bytes = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        } // end for
+        return new PuzzleKey(bytes);
+    } // end parse
+
+    // equals method
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PuzzleKey
+                && Arrays.equals(bytes, ((PuzzleKey) other).bytes);
+    } // end equals
+
+    // hashCode method
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    } // end hashCode
+
+    // toString method - 32 lower case hex digits
+    @Override
+    public String toString() {
+        char[] chars = new char[LENGTH * 2];
+        for (int i = 0; i < LENGTH; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        } // end for
+        return new String(chars);
+    } // end toString
+} // end PuzzleKey class
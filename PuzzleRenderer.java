@@ -0,0 +1,218 @@
+// Word Search Generator
+// PuzzleRenderer - buffered text, CSV and JSON output of puzzles
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// begin PuzzleRenderer class - renders a whole puzzle into a reusable
+// buffer and hands it to the output in a single write, instead of
+// formatting and writing one cell at a time
+//
+// a renderer reuses its buffers between puzzles and must not be shared
+// between threads
+public final class PuzzleRenderer {
+    // size of buffer used when writing puzzles to a file
+    private static final int FILE_BUFFER = 1 << 16;
+
+    // begin Format enum - supported output formats
+    public enum Format {
+        // cells as " X " with one row per line, as printed by the menu
+        TEXT("text/plain"),
+        // cells separated by commas with one row per line
+        CSV("text/csv"),
+        // one JSON object per puzzle and per line
+        JSON("application/json");
+
+        private final String contentType; // media type of rendered text
+
+        // constructor
+        Format(String contentType) {
+            this.contentType = contentType;
+        } // end constructor
+
+        // post: media type of text in this format has been returned
+        public String getContentType() {
+            return contentType;
+        } // end getContentType
+    } // end Format enum
+
+    private final Format format;
+    private final StringBuilder buffer = new StringBuilder();
+    private char[] chars = new char[0];
+
+    // begin constructor
+    public PuzzleRenderer(Format format) {
+        this.format = format;
+    } // end constructor
+
+    // post: format used by this renderer has been returned
+    public Format getFormat() {
+        return format;
+    } // end getFormat
+
+    // post: rows of grid, or of its solution with '_' in cells outside a
+    // word, have been rendered and returned - the result is only valid
+    // until the next call
+    public CharSequence renderGrid(Grid grid, boolean solution) {
+        buffer.setLength(0);
+        if (format == Format.JSON) {
+            appendJsonRows(grid, solution);
+            buffer.append('\n');
+        } else {
+            appendRows(grid, solution);
+        } // end if/else
+        return buffer;
+    } // end renderGrid
+
+    // post: puzzle and its word list have been rendered and returned, with
+    // the solution instead of the puzzle grid if solution is true - for
+    // JSON the solution is added next to the grid - the result is only
+    // valid until the next call
+    public CharSequence render(Puzzle puzzle, boolean solution) {
+        buffer.setLength(0);
+        Grid grid = puzzle.grid();
+        switch (format) {
+            case JSON:
+                buffer.append("{\"dimensions\":").append(grid.getWidth());
+                buffer.append(",\"grid\":");
+                appendJsonRows(grid, false);
+                if (solution) {
+                    buffer.append(",\"solution\":");
+                    appendJsonRows(grid, true);
+                } // end if
+                buffer.append(",\"words\":");
+                appendJsonStrings(puzzle.getWords());
+                buffer.append(",\"failedWords\":");
+                appendJsonStrings(puzzle.getFailedWords());
+                buffer.append("}\n");
+                break;
+
+            case CSV:
+                appendRows(grid, solution);
+                buffer.append("words");
+                for (String word : puzzle.getWords()) {
+                    buffer.append(',').append(word);
+                } // end for
+                buffer.append("\n\n");
+                break;
+
+            // only TEXT remains
+            default:
+                appendRows(grid, solution);
+                buffer.append("Word list: ")
+                        .append(String.join(" ", puzzle.getWords()))
+                        .append("\n\n");
+                break;
+        } // end switch
+        return buffer;
+    } // end render
+
+    // post: rows of grid have been appended to buffer as TEXT or CSV
+    private void appendRows(Grid grid, boolean solution) {
+        buffer.ensureCapacity(buffer.length()
+                + grid.size() * (format == Format.CSV ? 2 : 3) + grid.getHeight());
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                char c = solution ? grid.getSolutionChar(x, y, '_') : grid.get(x, y);
+                if (format == Format.CSV) {
+                    if (x > 0) {
+                        buffer.append(',');
+                    } // end if
+                    buffer.append(c);
+                } else {
+                    buffer.append(' ').append(c).append(' ');
+                } // end if/else
+            } // end inner for
+            buffer.append('\n');
+        } // end outer for
+    } // end appendRows
+
+    // post: rows of grid have been appended to buffer as a JSON array of
+    // strings, one string per row
+    private void appendJsonRows(Grid grid, boolean solution) {
+        buffer.append('[');
+        for (int y = 0; y < grid.getHeight(); y++) {
+            if (y > 0) {
+                buffer.append(',');
+            } // end if
+            buffer.append('"');
+            for (int x = 0; x < grid.getWidth(); x++) {
+                appendJsonChar(solution ? grid.getSolutionChar(x, y, '_')
+                        : grid.get(x, y));
+            } // end inner for
+            buffer.append('"');
+        } // end outer for
+        buffer.append(']');
+    } // end appendJsonRows
+
+    // post: strings have been appended to buffer as a JSON array
+    private void appendJsonStrings(List<String> strings) {
+        buffer.append('[');
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            } // end if
+            buffer.append('"');
+            String s = strings.get(i);
+            for (int j = 0; j < s.length(); j++) {
+                appendJsonChar(s.charAt(j));
+            } // end inner for
+            buffer.append('"');
+        } // end outer for
+        buffer.append(']');
+    } // end appendJsonStrings
+
+    // post: c has been appended to buffer, escaped for a JSON string
+    private void appendJsonChar(char c) {
+        if (c == '"' || c == '\\') {
+            buffer.append('\\').append(c);
+        } else if (c < 0x20) {
+            buffer.append(String.format("\\u%04x", (int) c));
+        } else {
+            buffer.append(c);
+        } // end if/else
+    } // end appendJsonChar
+
+    // post: rendered puzzle has been written to output in one call
+    public void write(Puzzle puzzle, boolean solution, Writer output) throws IOException {
+        render(puzzle, solution);
+        writeBuffer(output);
+    } // end write
+
+    // post: rendered grid has been written to output in one call
+    public void writeGrid(Grid grid, boolean solution, Writer output) throws IOException {
+        renderGrid(grid, solution);
+        writeBuffer(output);
+    } // end writeGrid
+
+    // post: buffer has been copied into a reusable array and written to
+    // output in one call
+    private void writeBuffer(Writer output) throws IOException {
+        int length = buffer.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        } // end if
+        buffer.getChars(0, length, chars, 0);
+        output.write(chars, 0, length);
+    } // end writeBuffer
+
+    // post: every puzzle has been written to file, replacing its contents,
+    // and the file has been flushed and closed
+    public void writeAll(Iterable<Puzzle> puzzles, boolean solution, Path file)
+            throws IOException {
+        try (Writer output = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file), StandardCharsets.UTF_8), FILE_BUFFER)) {
+            for (Puzzle puzzle : puzzles) {
+                write(puzzle, solution, output);
+            } // end for
+        } // end try
+    } // end writeAll
+} // end PuzzleRenderer class
@@ -0,0 +1,17 @@
+// Word Search Generator
+// PuzzleScorer - quality of a generated puzzle
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+// begin PuzzleScorer interface - rates a puzzle so BestOfSearch can keep
+// the best of several candidate layouts; higher scores are better, and a
+// scorer is called from several threads at once, so it must not keep
+// state between calls
+//
+// toString describes the scorer and its settings, and goes into the key
+// of a seeded search, so two scorers which rate differently must not
+// share a description
+public interface PuzzleScorer {
+    // post: score of puzzle has been returned, higher being better
+    double score(Puzzle puzzle);
+} // end PuzzleScorer interface
@@ -0,0 +1,408 @@
+// Word Search Generator
+// PuzzleSolver - find every occurrence of a word list in a grid
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// begin PuzzleSolver class - locates every occurrence of a word list in a
+// grid, in all eight directions, with an Aho-Corasick WordAutomaton
+//
+// the automaton holds every word and every word reversed, so each row,
+// column and diagonal is read once, in one direction, and a reversed word
+// found on it is an occurrence in the reverse direction. Reading a line
+// costs one table lookup per cell however many words there are. Lines are
+// independent, so big grids are split between threads by line.
+//
+// a solver is immutable once built and may be shared between threads
+public final class PuzzleSolver {
+    // grids of at least this many cells are split between threads
+    private static final int PARALLEL_CELLS = 1 << 16;
+    // directions of the lines read, the other four are found as reversed
+    // words on the same lines
+    private static final Direction[] LINE_DIRECTIONS = {
+        Direction.EAST, Direction.SOUTH_EAST, Direction.SOUTH, Direction.SOUTH_WEST
+    };
+
+    // distinct words in upper case, as given
+    private final String[] words;
+    // every word and every non-palindrome word reversed
+    private final WordAutomaton automaton;
+    // pattern p of the automaton is word patternWord[p], reversed if
+    // patternReversed[p]
+    private final int[] patternWord;
+    private final boolean[] patternReversed;
+
+    // pre: words holds no empty string
+    // begin constructor - words are matched in upper case, repeats are
+    // ignored
+    public PuzzleSolver(Collection<String> wordList) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String word : wordList) {
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("words must not be empty");
+            } // end if
+            distinct.add(word.toUpperCase(Locale.ROOT));
+        } // end for
+        this.words = distinct.toArray(new String[0]);
+
+        List<String> patterns = new ArrayList<>(2 * words.length);
+        int[] pWord = new int[2 * words.length];
+        boolean[] pReversed = new boolean[2 * words.length];
+        for (int w = 0; w < words.length; w++) {
+            String reversed = new StringBuilder(words[w]).reverse().toString();
+            for (int r = 0; r < (reversed.equals(words[w]) ? 1 : 2); r++) {
+                pWord[patterns.size()] = w;
+                pReversed[patterns.size()] = r == 1;
+                patterns.add(r == 0 ? words[w] : reversed);
+            } // end reading direction for
+        } // end word for
+        this.automaton = new WordAutomaton(patterns);
+        this.patternWord = Arrays.copyOf(pWord, patterns.size());
+        this.patternReversed = Arrays.copyOf(pReversed, patterns.size());
+    } // end constructor
+
+    // post: every occurrence of every word in grid has been returned,
+    // ordered by line - a palindrome is reported once per place, in the
+    // first of its two directions
+    public List<Occurrence> solve(Grid grid) {
+        return solve(grid, 1);
+    } // end solve
+
+    // post: as above, with grids of PARALLEL_CELLS or more read on a
+    // fork-join pool of the given number of threads
+    public List<Occurrence> solve(Grid grid, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        } // end if
+        long[] lines = lines(grid);
+        if (threads == 1 || grid.size() < PARALLEL_CELLS) {
+            List<Occurrence> found = new ArrayList<>();
+            for (long line : lines) {
+                scan(grid, line, found);
+            } // end for
+            return found;
+        } // end if
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new SolveTask(grid, lines, 0, lines.length));
+        } finally {
+            pool.shutdown();
+        } // end try/finally
+    } // end solve
+
+    // post: occurrences of the words of puzzle which cross at least one
+    // cell outside every placed word have been returned - these were
+    // created by the random fill, so a solver may find a word twice
+    public static List<Occurrence> findAccidental(Puzzle puzzle) {
+        Grid grid = puzzle.grid();
+        List<Occurrence> accidental = new ArrayList<>();
+        for (Occurrence occurrence : new PuzzleSolver(puzzle.getWords()).solve(grid)) {
+            Direction direction = occurrence.getDirection();
+            int step = direction.step(grid.getWidth());
+            int cell = grid.index(occurrence.getX(), occurrence.getY());
+            for (int i = 0; i < occurrence.getWord().length(); i++, cell += step) {
+                if (!grid.isWordCell(cell)) {
+                    accidental.add(occurrence);
+                    break;
+                } // end if
+            } // end for
+        } // end for
+        return accidental;
+    } // end findAccidental
+
+    // post: every line of grid in each of LINE_DIRECTIONS has been
+    // returned, packed as start cell and index into LINE_DIRECTIONS
+    private static long[] lines(Grid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        long[] lines = new long[2 * (width + height) + 2 * (width + height - 1)];
+        int n = 0;
+        for (int d = 0; d < LINE_DIRECTIONS.length; d++) {
+            Direction direction = LINE_DIRECTIONS[d];
+            // a line starts at every cell whose previous cell is outside
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (!grid.contains(x - direction.getDx(), y - direction.getDy())) {
+                        lines[n++] = (long) grid.index(x, y) << 2 | d;
+                    } // end if
+                } // end horizontal for
+            } // end vertical for
+        } // end direction for
+        return Arrays.copyOf(lines, n);
+    } // end lines
+
+    // post: every occurrence on line has been added to found
+    private void scan(Grid grid, long line, List<Occurrence> found) {
+        Direction direction = LINE_DIRECTIONS[(int) (line & 3)];
+        int width = grid.getWidth();
+        int x = (int) (line >>> 2) % width;
+        int y = (int) (line >>> 2) / width;
+        int step = direction.step(width);
+        int length = Math.min(
+                reach(x, direction.getDx(), width), reach(y, direction.getDy(), grid.getHeight()));
+        int state = WordAutomaton.ROOT;
+        for (int i = 0, cell = grid.index(x, y); i < length; i++, cell += step) {
+            state = automaton.step(state, grid.get(cell));
+            for (int s = automaton.firstMatch(state); s != -1; s = automaton.nextMatch(s)) {
+                for (int p = automaton.pattern(s); p != -1; p = automaton.nextPattern(p)) {
+                    String word = words[patternWord[p]];
+                    int first = i - word.length() + 1; // first cell on the line
+                    if (patternReversed[p]) {
+                        // read backwards from the last cell matched
+                        found.add(new Occurrence(word, x + i * direction.getDx(),
+                                y + i * direction.getDy(), direction.reverse()));
+                    } else {
+                        found.add(new Occurrence(word, x + first * direction.getDx(),
+                                y + first * direction.getDy(), direction));
+                    } // end if/else
+                } // end pattern for
+            } // end output for
+        } // end cell for
+    } // end scan
+
+    // post: number of steps of d from position p, counting p, which stay
+    // inside 0 to size - 1 has been returned
+    private static int reach(int p, int d, int size) {
+        return d > 0 ? size - p : d < 0 ? p + 1 : Integer.MAX_VALUE;
+    } // end reach
+
+    // begin SolveTask class - fork-join task which splits a range of lines
+    // in half until it is small enough to read directly
+    private final class SolveTask extends RecursiveTask<List<Occurrence>> {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 64;
+        private final Grid grid;
+        private final long[] lines;
+        private final int from;
+        private final int to;
+
+        // begin constructor
+        SolveTask(Grid grid, long[] lines, int from, int to) {
+            this.grid = grid;
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        } // end constructor
+
+        // post: occurrences on lines[from, to) have been returned in line
+        // order
+        @Override
+        protected List<Occurrence> compute() {
+            if (to - from <= THRESHOLD) {
+                List<Occurrence> found = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    scan(grid, lines[i], found);
+                } // end for
+                return found;
+            } // end if
+            int mid = (from + to) >>> 1;
+            SolveTask right = new SolveTask(grid, lines, mid, to);
+            right.fork();
+            List<Occurrence> found = new SolveTask(grid, lines, from, mid).compute();
+            found.addAll(right.join());
+            return found;
+        } // end compute
+    } // end SolveTask class
+
+    // pre: file holds one grid row per line, as written by the TEXT or
+    // CSV format or as plain letters - see readGrid below for how cells
+    // are told apart, and reading stops at the first blank line or word
+    // list
+    // post: grid read from file has been returned
+    public static Grid readGrid(Path file) throws IOException {
+        try (BufferedReader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return readGrid(input, file.toString());
+        } // end try
+    } // end readGrid
+
+    // pre: input holds a grid as above - rows as TEXT writes them, " X "
+    // a cell, keep a blank cell as a hole, and a row cut short, as by an
+    // editor trimming trailing blanks, is padded with holes; CSV rows keep
+    // a blank cell between commas as a hole; other rows are read as
+    // letters, any blanks between them ignored
+    // post: grid read from input has been returned, errors name source
+    static Grid readGrid(BufferedReader input, String source) throws IOException {
+        List<String> rows = new ArrayList<>();
+        boolean spaced = false;
+        int width = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            // a line of blanks is a row of holes once a TEXT grid started
+            if (line.isEmpty() || line.isBlank() && (rows.isEmpty() || !spaced)
+                    || line.startsWith("Word list:") || line.startsWith("words,")) {
+                if (rows.isEmpty()) {
+                    continue; // leading blank lines
+                } // end if
+                break;
+            } // end if
+            if (rows.isEmpty()) {
+                spaced = isSpaced(line);
+            } // end if
+            String row;
+            if (spaced) {
+                if (!isSpaced(line)) {
+                    throw new IOException(source + ": row " + (rows.size() + 1)
+                            + " is not laid out as \" X \" cells like the first");
+                } // end if
+                row = spacedCells(line);
+            } else if (line.indexOf(',') >= 0) {
+                row = csvCells(line);
+            } else {
+                row = line.replaceAll("\\s", "");
+            } // end if/else
+            if (!spaced && !rows.isEmpty() && row.length() != width) {
+                throw new IOException(source + ": row " + (rows.size() + 1)
+                        + " has " + row.length() + " cells, expected " + width);
+            } // end if
+            width = Math.max(width, row.length());
+            rows.add(row.toUpperCase(Locale.ROOT));
+        } // end while
+        if (rows.isEmpty() || width == 0) {
+            throw new IOException(source + ": no grid found");
+        } // end if
+        Grid grid = new Grid(width, rows.size());
+        for (int y = 0; y < rows.size(); y++) {
+            String row = rows.get(y);
+            for (int x = 0; x < width; x++) {
+                grid.set(grid.index(x, y), x < row.length() ? row.charAt(x) : Grid.HOLE);
+            } // end for
+        } // end for
+        return grid;
+    } // end readGrid
+
+    // post: method has returned true if line is laid out as TEXT writes
+    // rows, every cell a character between two blanks, the last blanks
+    // possibly cut off
+    private static boolean isSpaced(String line) {
+        for (int i = 0; i < line.length(); i += 3) {
+            if (line.charAt(i) != ' ' || i + 2 < line.length() && line.charAt(i + 2) != ' ') {
+                return false;
+            } // end if
+        } // end for
+        return true;
+    } // end isSpaced
+
+    // pre: isSpaced(line)
+    // post: cells of line, the middle character of every three, have
+    // been returned
+    private static String spacedCells(String line) {
+        StringBuilder row = new StringBuilder(line.length() / 3 + 1);
+        for (int i = 1; i < line.length(); i += 3) {
+            row.append(line.charAt(i));
+        } // end for
+        return row.toString();
+    } // end spacedCells
+
+    // post: cells of a CSV line have been returned, a cell holding only
+    // blanks, or nothing, as a hole
+    private static String csvCells(String line) {
+        StringBuilder row = new StringBuilder(line.length() / 2 + 1);
+        for (String cell : line.split(",", -1)) {
+            String letters = cell.strip();
+            row.append(letters.isEmpty() ? String.valueOf(Grid.HOLE) : letters);
+        } // end for
+        return row.toString();
+    } // end csvCells
+
+    // pre: args = grid file, WORD...
+    // post: every occurrence of the words in the grid has been printed,
+    // followed by the words which were not found
+    public static void run(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: solve <grid file> WORD...");
+            return;
+        } // end if
+        Grid grid = readGrid(Path.of(args[0]));
+        List<String> wordList = Arrays.asList(args).subList(1, args.length);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Occurrence> found = new PuzzleSolver(wordList).solve(grid, threads);
+        System.out.print(report(found, wordList));
+    } // end run
+
+    // post: one line per occurrence in found, then a line of the words of
+    // wordList which were not found, if any, has been returned
+    static String report(List<Occurrence> found, List<String> wordList) {
+        StringBuilder report = new StringBuilder();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String word : wordList) {
+            missing.add(word.toUpperCase(Locale.ROOT));
+        } // end for
+        for (Occurrence occurrence : found) {
+            report.append(occurrence).append('\n');
+            missing.remove(occurrence.getWord());
+        } // end for
+        if (!missing.isEmpty()) {
+            report.append("Not found: ").append(String.join(" ", missing)).append('\n');
+        } // end if
+        return report.toString();
+    } // end report
+
+    // begin Occurrence class - a word read from its first letter at column
+    // x, row y in direction
+    public static final class Occurrence {
+        private final String word;
+        private final int x;
+        private final int y;
+        private final Direction direction;
+
+        // begin constructor
+        public Occurrence(String word, int x, int y, Direction direction) {
+            this.word = word;
+            this.x = x;
+            this.y = y;
+            this.direction = direction;
+        } // end constructor
+
+        // get methods
+        public String getWord() {
+            return word;
+        } // end getWord
+        public int getX() {
+            return x;
+        } // end getX
+        public int getY() {
+            return y;
+        } // end getY
+        public Direction getDirection() {
+            return direction;
+        } // end getDirection
+
+        // equals method
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Occurrence)) {
+                return false;
+            } // end if
+            Occurrence other = (Occurrence) o;
+            return word.equals(other.word) && x == other.x && y == other.y
+                    && direction == other.direction;
+        } // end equals
+
+        // hashCode method
+        @Override
+        public int hashCode() {
+            return Objects.hash(word, x, y, direction);
+        } // end hashCode
+
+        // toString method
+        public String toString() {
+            return word + " at (" + x + ", " + y + ") "
+                    + direction.name().toLowerCase(Locale.ROOT);
+        } // end toString
+    } // end Occurrence class
+} // end PuzzleSolver class
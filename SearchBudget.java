@@ -0,0 +1,56 @@
+// Word Search Generator
+// SearchBudget - limits for the backtracking placement search
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+// begin SearchBudget class - maximum number of placements the
+// backtracking search may try and maximum time it may run before it
+// settles for the best partial layout found so far
+//
+// the time budget also covers placing the words left off that layout, so
+// once it runs out they fail; filling the empty cells afterwards is not
+// counted, and takes time of its own on very large grids
+public final class SearchBudget {
+    // budget used when none is given
+    public static final SearchBudget DEFAULT = new SearchBudget(1_000_000, 2_000);
+
+    private final long maxSteps;
+    private final long timeoutMillis;
+
+    // begin constructor
+    public SearchBudget(long maxSteps, long timeoutMillis) {
+        if (maxSteps <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        } // end if
+        this.maxSteps = maxSteps;
+        this.timeoutMillis = timeoutMillis;
+    } // end constructor
+
+    // pre: spec is default or steps,millis such as 500000,1000
+    // post: budget described by spec has been returned
+    public static SearchBudget parse(String spec) {
+        if (spec.equalsIgnoreCase("default")) {
+            return DEFAULT;
+        } // end if
+        String[] parts = spec.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("expected steps,millis: " + spec);
+        } // end if
+        return new SearchBudget(Long.parseLong(parts[0].trim()),
+                Long.parseLong(parts[1].trim()));
+    } // end parse
+
+    // get methods
+    public long getMaxSteps() {
+        return maxSteps;
+    } // end getMaxSteps
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    } // end getTimeoutMillis
+
+    // toString method
+    public String toString() {
+        return "[maxSteps = " + maxSteps + "; timeoutMillis = "
+                + timeoutMillis + "]";
+    } // end toString
+} // end SearchBudget class
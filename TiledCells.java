@@ -0,0 +1,238 @@
+// Word Search Generator
+// TiledCells - lazily allocated tile storage for very large grids
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// begin TiledCells class - cells of a large grid split into square tiles
+// of TILE x TILE cells, each allocated the first time one of its cells is
+// written, so placing words in a huge grid only costs memory for the
+// tiles the words touch; a tile never written reads as Grid.EMPTY
+//
+// cells hold the one byte codes of Grid, code 0 being Grid.EMPTY, and
+// tiles may be kept in direct buffers outside the Java heap,
+// so a grid of hundreds of millions of cells does not need a heap of the
+// same size; word flags are always kept on the heap, one bit per cell
+final class TiledCells {
+    // log2 of the side of a tile
+    private static final int SHIFT = 6;
+    // side of a tile
+    static final int TILE = 1 << SHIFT;
+    // cells in a tile
+    private static final int TILE_CELLS = TILE * TILE;
+
+    private final int width;
+    private final int tilesPerRow;
+    private final boolean offHeap;
+    // exactly one of heapTiles and directTiles is in use
+    private final byte[][] heapTiles;
+    private final ByteBuffer[] directTiles;
+    // word flags of each tile, allocated with the tile
+    private final long[][] wordBits;
+
+    // begin constructor - every cell starts EMPTY and no tile is allocated
+    TiledCells(int width, int height, boolean offHeap) {
+        this.width = width;
+        this.tilesPerRow = (width + TILE - 1) >>> SHIFT;
+        int tiles = tilesPerRow * ((height + TILE - 1) >>> SHIFT);
+        this.offHeap = offHeap;
+        this.heapTiles = offHeap ? null : new byte[tiles][];
+        this.directTiles = offHeap ? new ByteBuffer[tiles] : null;
+        this.wordBits = new long[tiles][];
+    } // end constructor
+
+    // copy constructor - allocated tiles are copied, in the same memory
+    private TiledCells(TiledCells other) {
+        this.width = other.width;
+        this.tilesPerRow = other.tilesPerRow;
+        this.offHeap = other.offHeap;
+        this.heapTiles = offHeap ? null : new byte[other.wordBits.length][];
+        this.directTiles = offHeap ? new ByteBuffer[other.wordBits.length] : null;
+        this.wordBits = new long[other.wordBits.length][];
+        copyTiles(other);
+    } // end copy constructor
+
+    // post: independent copy has been returned
+    TiledCells copy() {
+        return new TiledCells(this);
+    } // end copy
+
+    // pre: other has the same size as this storage
+    // post: every tile of other has been copied, tiles other never
+    // allocated have been emptied here
+    void copyFrom(TiledCells other) {
+        copyTiles(other);
+    } // end copyFrom
+
+    // post: tiles of other have been copied into this storage
+    private void copyTiles(TiledCells other) {
+        for (int t = 0; t < wordBits.length; t++) {
+            if (other.wordBits[t] == null) {
+                if (wordBits[t] != null) {
+                    clearTile(t);
+                } // end if
+                continue;
+            } // end if
+            allocate(t);
+            System.arraycopy(other.wordBits[t], 0, wordBits[t], 0, wordBits[t].length);
+            if (offHeap) {
+                ByteBuffer source = other.directTiles[t].duplicate();
+                source.clear();
+                ByteBuffer target = directTiles[t].duplicate();
+                target.clear();
+                target.put(source);
+            } else {
+                System.arraycopy(other.heapTiles[t], 0, heapTiles[t], 0, TILE_CELLS);
+            } // end if/else
+        } // end for
+    } // end copyTiles
+
+    // post: every cell of tile t has been emptied, the tile stays allocated
+    private void clearTile(int t) {
+        Arrays.fill(wordBits[t], 0);
+        if (offHeap) {
+            for (int i = 0; i < TILE_CELLS; i++) {
+                directTiles[t].put(i, (byte) 0);
+            } // end for
+        } else {
+            Arrays.fill(heapTiles[t], (byte) 0);
+        } // end if/else
+    } // end clearTile
+
+    // post: tile t has been allocated if it was not already
+    private void allocate(int t) {
+        if (wordBits[t] != null) {
+            return;
+        } // end if
+        if (offHeap) {
+            // direct memory starts zeroed, which is Grid.EMPTY
+            directTiles[t] = ByteBuffer.allocateDirect(TILE_CELLS);
+        } else {
+            heapTiles[t] = new byte[TILE_CELLS];
+        } // end if/else
+        wordBits[t] = new long[TILE_CELLS >>> 6];
+    } // end allocate
+
+    // post: tile holding flat index has been returned
+    private int tile(int index) {
+        int y = index / width;
+        return tile(index - y * width, y);
+    } // end tile
+
+    // post: tile holding column x, row y has been returned
+    private int tile(int x, int y) {
+        return (y >>> SHIFT) * tilesPerRow + (x >>> SHIFT);
+    } // end tile
+
+    // post: position of flat index inside its tile has been returned
+    private int offset(int index) {
+        int y = index / width;
+        return offset(index - y * width, y);
+    } // end offset
+
+    // post: position of column x, row y inside its tile has been returned
+    private static int offset(int x, int y) {
+        return (y & (TILE - 1)) << SHIFT | (x & (TILE - 1));
+    } // end offset
+
+    // post: code at flat index has been returned
+    byte get(int index) {
+        int y = index / width;
+        return get(index - y * width, y);
+    } // end get
+
+    // post: code at column x, row y has been returned
+    byte get(int x, int y) {
+        int t = tile(x, y);
+        if (wordBits[t] == null) {
+            return 0;
+        } // end if
+        return offHeap ? directTiles[t].get(offset(x, y)) : heapTiles[t][offset(x, y)];
+    } // end get
+
+    // post: code at flat index has been replaced by code
+    void set(int index, byte code) {
+        int t = tile(index);
+        if (wordBits[t] == null) {
+            if (code == 0) {
+                return; // already empty
+            } // end if
+            allocate(t);
+        } // end if
+        if (offHeap) {
+            directTiles[t].put(offset(index), code);
+        } else {
+            heapTiles[t][offset(index)] = code;
+        } // end if/else
+    } // end set
+
+    // post: word flag of flat index has been set to word
+    void setWord(int index, boolean word) {
+        int t = tile(index);
+        if (wordBits[t] == null) {
+            if (!word) {
+                return; // unallocated tiles hold no word cells
+            } // end if
+            allocate(t);
+        } // end if
+        int offset = offset(index);
+        if (word) {
+            wordBits[t][offset >>> 6] |= 1L << offset;
+        } else {
+            wordBits[t][offset >>> 6] &= ~(1L << offset);
+        } // end if/else
+    } // end setWord
+
+    // post: method has returned true if flat index is part of a word
+    boolean isWord(int index) {
+        int t = tile(index);
+        if (wordBits[t] == null) {
+            return false;
+        } // end if
+        int offset = offset(index);
+        return (wordBits[t][offset >>> 6] & (1L << offset)) != 0;
+    } // end isWord
+
+    // post: number of cells flagged as part of a word has been returned
+    int countWords() {
+        int count = 0;
+        for (long[] bits : wordBits) {
+            if (bits != null) {
+                for (long word : bits) {
+                    count += Long.bitCount(word);
+                } // end inner for
+            } // end if
+        } // end outer for
+        return count;
+    } // end countWords
+
+    // post: method has returned true if no cell holds a code other than
+    // that of Grid.EMPTY
+    boolean isEmpty() {
+        for (int t = 0; t < wordBits.length; t++) {
+            if (wordBits[t] == null) {
+                continue;
+            } // end if
+            for (int i = 0; i < TILE_CELLS; i++) {
+                byte code = offHeap ? directTiles[t].get(i) : heapTiles[t][i];
+                if (code != 0) {
+                    return false;
+                } // end if
+            } // end for
+        } // end for
+        return true;
+    } // end isEmpty
+
+    // post: number of tiles allocated so far has been returned
+    int allocatedTiles() {
+        int count = 0;
+        for (long[] bits : wordBits) {
+            if (bits != null) {
+                count++;
+            } // end if
+        } // end for
+        return count;
+    } // end allocatedTiles
+} // end TiledCells class
@@ -0,0 +1,190 @@
+// Word Search Generator
+// WordAutomaton - Aho-Corasick automaton over a list of patterns
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+import java.util.List;
+
+// begin WordAutomaton class - every pattern in one trie whose missing
+// transitions are filled from the failure links, so feeding a line of
+// characters one at a time costs one table lookup per character and
+// never backtracks; the state reached stands for the longest suffix read
+// which is a prefix of a pattern
+//
+// PuzzleSolver reports the patterns ending at each state, GridFiller only
+// asks how long the longest of them is. Patterns are numbered in the
+// order given, and the patterns ending at a state are listed from the
+// last added.
+//
+// an automaton is immutable once built and may be shared between threads
+final class WordAutomaton {
+    // state before any character has been read
+    static final int ROOT = 0;
+
+    // code of every character used by a pattern by the high byte of the
+    // char, then the low byte, from 1 up - 0 for characters in no pattern,
+    // and a page without such characters is null
+    private final int[][] pages = new int[256][];
+    private final int alphabetSize; // codes in use, including 0
+    // transition of state s on code c, failure links already followed
+    private final int[] next;
+    // first pattern ending at each state, -1 if none, and the nearest
+    // state down the failure chain with a pattern, -1 if none
+    private final int[] output;
+    private final int[] outputLink;
+    // another pattern ending at the same state as pattern p, -1 if none
+    private final int[] patternNext;
+    // length of the prefix of each state, and of the longest pattern which
+    // is a suffix of it, 0 if none
+    private final int[] depth;
+    private final int[] longest;
+    private final int maxLength;
+
+    // pre: patterns holds no empty string
+    // begin constructor
+    WordAutomaton(List<String> patterns) {
+        // number every character used by a pattern
+        int codes = 1;
+        int maxStates = 1;
+        int longestPattern = 0;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("patterns must not be empty");
+            } // end if
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (code(c) == 0) {
+                    if (pages[c >>> 8] == null) {
+                        pages[c >>> 8] = new int[256];
+                    } // end if
+                    pages[c >>> 8][c & 0xFF] = codes++;
+                } // end if
+            } // end for
+            maxStates += pattern.length();
+            longestPattern = Math.max(longestPattern, pattern.length());
+        } // end for
+        this.alphabetSize = codes;
+        this.maxLength = longestPattern;
+
+        // trie of every pattern
+        int[] trie = new int[maxStates * alphabetSize];
+        int[] firstPattern = new int[maxStates];
+        int[] depths = new int[maxStates];
+        Arrays.fill(firstPattern, -1);
+        this.patternNext = new int[patterns.size()];
+        int states = 1;
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * alphabetSize + code(pattern.charAt(i));
+                if (trie[slot] == 0) {
+                    depths[states] = i + 1;
+                    trie[slot] = states++;
+                } // end if
+                state = trie[slot];
+            } // end for
+            patternNext[p] = firstPattern[state];
+            firstPattern[state] = p;
+        } // end pattern for
+
+        // breadth first over the trie, filling missing transitions from
+        // the failure state so matching never backtracks
+        this.next = Arrays.copyOf(trie, states * alphabetSize);
+        this.output = Arrays.copyOf(firstPattern, states);
+        this.depth = Arrays.copyOf(depths, states);
+        this.outputLink = new int[states];
+        this.longest = new int[states];
+        int[] failure = new int[states];
+        outputLink[ROOT] = -1;
+        // every state is queued once, so an array of states is enough
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 1; c < alphabetSize; c++) {
+            int child = next[c];
+            if (child != 0) {
+                failure[child] = ROOT;
+                outputLink[child] = -1;
+                longest[child] = output[child] >= 0 ? 1 : 0;
+                queue[tail++] = child;
+            } // end if
+        } // end for
+        while (head < tail) {
+            int state = queue[head++];
+            for (int c = 1; c < alphabetSize; c++) {
+                int slot = state * alphabetSize + c;
+                int child = next[slot];
+                int fallback = next[failure[state] * alphabetSize + c];
+                if (child == 0) {
+                    next[slot] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    outputLink[child] = output[fallback] >= 0 ? fallback
+                            : outputLink[fallback];
+                    longest[child] = output[child] >= 0 ? depth[child] : longest[fallback];
+                    queue[tail++] = child;
+                } // end if/else
+            } // end for
+        } // end while
+    } // end constructor
+
+    // post: code of c has been returned, 0 if c is in no pattern
+    private int code(char c) {
+        int[] page = pages[c >>> 8];
+        return page == null ? 0 : page[c & 0xFF];
+    } // end code
+
+    // post: state reached by reading c in state has been returned
+    int step(int state, char c) {
+        return next[state * alphabetSize + code(c)];
+    } // end step
+
+    // post: first pattern ending at the last character read to reach
+    // state has been returned, -1 if none - the rest follow through
+    // nextMatch
+    int firstMatch(int state) {
+        return output[state] >= 0 ? state : outputLink[state];
+    } // end firstMatch
+
+    // post: state of the next patterns ending at the same character as
+    // those of state, found through firstMatch, has been returned, -1 if
+    // none
+    int nextMatch(int state) {
+        return outputLink[state];
+    } // end nextMatch
+
+    // pre: state has been returned by firstMatch or nextMatch
+    // post: first of the patterns ending at state has been returned
+    int pattern(int state) {
+        return output[state];
+    } // end pattern
+
+    // post: another pattern ending at the same state as pattern has been
+    // returned, -1 if none
+    int nextPattern(int pattern) {
+        return patternNext[pattern];
+    } // end nextPattern
+
+    // post: number of characters of the prefix of state has been returned
+    int depth(int state) {
+        return depth[state];
+    } // end depth
+
+    // post: length of the longest pattern ending at the last character
+    // read to reach state has been returned, 0 if no pattern ends there
+    int longestMatch(int state) {
+        return longest[state];
+    } // end longestMatch
+
+    // post: length of the longest pattern has been returned, 0 if empty
+    int getMaxLength() {
+        return maxLength;
+    } // end getMaxLength
+
+    // post: method has returned true if there are no patterns
+    boolean isEmpty() {
+        return maxLength == 0;
+    } // end isEmpty
+} // end WordAutomaton class
@@ -0,0 +1,201 @@
+// Word Search Generator
+// WordListReader - streaming word lists from dictionary files
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// begin WordListReader class - reads words from a dictionary file one
+// character buffer at a time, without loading the file, normalizing
+// every word through an Alphabet and dropping words of the wrong length
+// or with characters outside the alphabet
+//
+// words may be separated by any whitespace or commas. Sampling keeps
+// only the sampled words in memory, so memory use does not grow with
+// the size of the dictionary
+public final class WordListReader {
+    // letters of Alphabet.LATIN, the default alphabet
+    public static final String LATIN = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // characters read from the file at a time
+    private static final int BUFFER = 1 << 16;
+
+    private final int minLength;
+    private final int maxLength;
+    private final Alphabet alphabet;
+
+    // begin constructor - words of 3 or more letters from A to Z
+    public WordListReader() {
+        this(3, Integer.MAX_VALUE, Alphabet.LATIN);
+    } // end constructor
+
+    // constructor - words are kept if minLength <= length <= maxLength and
+    // every character, after upper casing, is in alphabet
+    public WordListReader(int minLength, int maxLength, String alphabet) {
+        this(minLength, maxLength, Alphabet.forLetters(alphabet));
+    } // end constructor
+
+    // constructor - words are kept if minLength <= length <= maxLength and
+    // every character, after alphabet.normalize, is a letter of alphabet
+    public WordListReader(int minLength, int maxLength, Alphabet alphabet) {
+        if (minLength < 1 || maxLength < minLength) {
+            throw new IllegalArgumentException("invalid length range "
+                    + minLength + ".." + maxLength);
+        } // end if
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.alphabet = alphabet;
+    } // end constructor
+
+    // post: action has been called with every accepted word of file, in
+    // file order and including repeats
+    public void forEach(Path file, Consumer<String> action) throws IOException {
+        char[] buffer = new char[BUFFER];
+        StringBuilder token = new StringBuilder();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                for (int i = 0; i < n; i++) {
+                    char c = buffer[i];
+                    if (Character.isWhitespace(c) || c == ',') {
+                        accept(token, action);
+                    } else {
+                        token.append(c);
+                    } // end if/else
+                } // end for
+            } // end while
+            accept(token, action);
+        } // end try
+    } // end forEach
+
+    // post: token has been normalized and passed to action if accepted,
+    // and cleared
+    private void accept(StringBuilder token, Consumer<String> action) {
+        if (token.length() == 0) {
+            return;
+        } // end if
+        String word = alphabet.normalize(token.toString());
+        token.setLength(0);
+        if (word.length() < minLength || word.length() > maxLength
+                || !alphabet.contains(word)) {
+            return;
+        } // end if
+        action.accept(word);
+    } // end accept
+
+    // post: every distinct accepted word of file has been returned in the
+    // order first seen
+    public List<String> readAll(Path file) throws IOException {
+        Set<String> words = new LinkedHashSet<>();
+        forEach(file, words::add);
+        return new ArrayList<>(words);
+    } // end readAll
+
+    // post: k distinct accepted words of file, or all of them if there are
+    // fewer, have been chosen uniformly at random from seed and returned
+    public List<String> sample(Path file, int k, long seed) throws IOException {
+        return sample(file, k, 1, seed).get(0);
+    } // end sample
+
+    // post: count independent samples of k distinct words have been taken
+    // in a single pass over file, sample i drawn from seed + i
+    //
+    // every word gets a priority from a hash of the word and the seed, and
+    // each sample keeps the k words with the lowest priority - a repeated
+    // word has the same priority every time, so duplicates in the file
+    // never bias the sample and never appear twice in it
+    public List<List<String>> sample(Path file, int k, int count, long seed)
+            throws IOException {
+        if (k < 1 || count < 1) {
+            throw new IllegalArgumentException("k and count must be positive");
+        } // end if
+        List<Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new Sample(k, seed + i));
+        } // end for
+        forEach(file, word -> {
+            for (Sample sample : samples) {
+                sample.offer(word);
+            } // end for
+        });
+        List<List<String>> result = new ArrayList<>(count);
+        for (Sample sample : samples) {
+            result.add(sample.words());
+        } // end for
+        return result;
+    } // end sample
+
+    // begin Sample class - the k words of lowest priority seen so far
+    private static final class Sample {
+        private final int k;
+        private final long seed;
+        // highest priority on top, so it is the one to evict
+        private final PriorityQueue<Entry> heap;
+        private final Set<String> members = new HashSet<>();
+
+        // begin constructor
+        Sample(int k, long seed) {
+            this.k = k;
+            this.seed = seed;
+            this.heap = new PriorityQueue<>(k,
+                    (a, b) -> Long.compareUnsigned(b.priority, a.priority));
+        } // end constructor
+
+        // post: word has been kept if it is among the k of lowest priority
+        void offer(String word) {
+            long priority = mix(word.hashCode() * 0x9E3779B97F4A7C15L + seed);
+            if (heap.size() == k
+                    && Long.compareUnsigned(priority, heap.peek().priority) >= 0) {
+                return;
+            } // end if
+            if (!members.add(word)) {
+                return; // already sampled
+            } // end if
+            heap.add(new Entry(word, priority));
+            if (heap.size() > k) {
+                members.remove(heap.poll().word);
+            } // end if
+        } // end offer
+
+        // post: sampled words have been returned in priority order
+        List<String> words() {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort((a, b) -> Long.compareUnsigned(a.priority, b.priority));
+            List<String> words = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                words.add(entry.word);
+            } // end for
+            return Collections.unmodifiableList(words);
+        } // end words
+
+        // post: bits of z have been scrambled (SplitMix64 finalizer)
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        } // end mix
+    } // end Sample class
+
+    // begin Entry class - word with its sampling priority
+    private static final class Entry {
+        private final String word;
+        private final long priority;
+
+        // begin constructor
+        Entry(String word, long priority) {
+            this.word = word;
+            this.priority = priority;
+        } // end constructor
+    } // end Entry class
+} // end WordListReader class
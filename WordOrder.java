@@ -0,0 +1,112 @@
+// Word Search Generator
+// WordOrder - order in which words are placed
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// begin WordOrder enum - strategies for ordering a word list before
+// placement; every strategy computes one key per word and sorts once, so
+// ordering costs O(n log n), and words with equal keys keep their order
+public enum WordOrder {
+    // longest words first, so later words can cross them
+    LENGTH_DESCENDING {
+        @Override
+        long key(String word, int[] letterCounts) {
+            return -word.length();
+        } // end key
+    },
+
+    // words whose letters appear most often across the list first, as
+    // they have the most chances to cross other words; longer words first
+    // on equal scores
+    MOST_SHARED_LETTERS {
+        @Override
+        long key(String word, int[] letterCounts) {
+            long shared = 0;
+            for (int i = 0; i < word.length(); i++) {
+                // count each distinct letter of word once
+                if (word.indexOf(word.charAt(i)) == i) {
+                    shared += letterCounts[slot(word.charAt(i))];
+                } // end if
+            } // end for
+            return -(shared << 16 | Math.min(word.length(), 0xFFFF));
+        } // end key
+    },
+
+    // words holding the letters rarest across the list first, while the
+    // grid is still empty enough to fit them; longer words first on equal
+    // scores
+    RAREST_LETTER_FIRST {
+        @Override
+        long key(String word, int[] letterCounts) {
+            long rarest = Integer.MAX_VALUE;
+            for (int i = 0; i < word.length(); i++) {
+                rarest = Math.min(rarest, letterCounts[slot(word.charAt(i))]);
+            } // end for
+            return rarest << 16 | (0xFFFF - Math.min(word.length(), 0xFFFF));
+        } // end key
+    };
+
+    // number of counters used for letter frequencies, characters share a
+    // counter when they hash to the same slot
+    private static final int SLOTS = 256;
+
+    // pre: letterCounts holds, for every slot, the number of words of the
+    // list containing a character of that slot
+    // post: sort key of word has been returned, lower keys come first
+    abstract long key(String word, int[] letterCounts);
+
+    // post: words have been reordered by this strategy
+    public void sort(List<String> words) {
+        int[] letterCounts = needsCounts() ? countLetters(words) : null;
+        Keyed[] keyed = new Keyed[words.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            String word = words.get(i);
+            keyed[i] = new Keyed(key(word, letterCounts), word);
+        } // end for
+        // merge sort on objects is stable
+        Arrays.sort(keyed, Comparator.comparingLong(k -> k.key));
+        for (int i = 0; i < keyed.length; i++) {
+            words.set(i, keyed[i].word);
+        } // end for
+    } // end sort
+
+    // post: method has returned true if key reads letter counts
+    private boolean needsCounts() {
+        return this != LENGTH_DESCENDING;
+    } // end needsCounts
+
+    // post: for every slot, the number of words containing a character of
+    // that slot has been returned
+    private static int[] countLetters(List<String> words) {
+        int[] counts = new int[SLOTS];
+        for (String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                if (word.indexOf(word.charAt(i)) == i) {
+                    counts[slot(word.charAt(i))]++;
+                } // end if
+            } // end for
+        } // end for
+        return counts;
+    } // end countLetters
+
+    // post: counter slot of c has been returned
+    private static int slot(char c) {
+        return c & (SLOTS - 1);
+    } // end slot
+
+    // begin Keyed class - word with its precomputed sort key
+    private static final class Keyed {
+        private final long key;
+        private final String word;
+
+        // begin constructor
+        Keyed(long key, String word) {
+            this.key = key;
+            this.word = word;
+        } // end constructor
+    } // end Keyed class
+} // end WordOrder enum
@@ -0,0 +1,44 @@
+// Word Search Generator
+// BenchmarkWords - word lists for benchmarks
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// begin BenchmarkWords class - builds repeatable lists of random upper
+// case words so every benchmark run measures the same input
+final class BenchmarkWords {
+
+    // post: count words of length letters each, drawn from seed, have been
+    // returned
+    static List<String> random(int count, int length, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        List<String> words = new ArrayList<>(count);
+        char[] letters = new char[length];
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < length; j++) {
+                letters[j] = (char) ('A' + rand.nextInt(26));
+            } // end for
+            words.add(new String(letters));
+        } // end for
+        return words;
+    } // end random
+
+    // post: count words with lengths spread between 3 and maxLength have
+    // been returned, in random order
+    static List<String> mixed(int count, int maxLength, long seed) {
+        SplittableRandom rand = new SplittableRandom(seed);
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = 3 + rand.nextInt(Math.max(1, maxLength - 2));
+            StringBuilder word = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('A' + rand.nextInt(26)));
+            } // end for
+            words.add(word.toString());
+        } // end for
+        return words;
+    } // end mixed
+} // end BenchmarkWords class
@@ -0,0 +1,59 @@
+// Word Search Generator
+// GenerateBenchmark - end to end puzzle generation
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// begin GenerateBenchmark class - measures WordSearchGenerator.generate
+// from word list to filled grid, a gridSize of 0 sizes the grid as the
+// interactive menu does, Size.MEDIUM plus the longest word
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GenerateBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    private int wordCount;
+
+    @Param({"5", "10"})
+    private int wordLength;
+
+    @Param({"0", "50", "200"})
+    private int gridSize;
+
+    private List<String> words;
+    private int dimensions;
+    private long seed;
+
+    // post: word list and grid size have been prepared
+    @Setup
+    public void setup() {
+        words = BenchmarkWords.mixed(wordCount, wordLength, 42);
+        dimensions = gridSize == 0 ? Size.MEDIUM.getSize() + wordLength : gridSize;
+    } // end setup
+
+    // post: one puzzle has been generated with a new seed
+    @Benchmark
+    public Grid generate() {
+        WordSearchGenerator generator =
+                new WordSearchGenerator(new SplittableRandom(seed++));
+        generator.generate(words, dimensions, null);
+        return generator.getGrid();
+    } // end generate
+} // end GenerateBenchmark class
@@ -0,0 +1,100 @@
+// Word Search Generator
+// PlacementBenchmark - placement and fill hot paths
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.awt.Point;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// begin PlacementBenchmark class - measures checkPath, placeWord,
+// findFirstMatchingPoint and fillEmptySpaces against a grid laid out
+// from wordCount words but not yet filled
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PlacementBenchmark {
+    // number of probe placements cycled through by checkPath
+    private static final int PROBES = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int wordCount;
+
+    @Param({"5", "10"})
+    private int wordLength;
+
+    @Param({"20", "100", "500"})
+    private int gridSize;
+
+    private WordSearchGenerator generator;
+    private Grid laidOut;
+    private Grid target;
+    private String probe;
+    private Point[] points;
+    private Direction[] directions;
+    private int next;
+
+    // post: grid has been laid out and probe placements drawn
+    @Setup
+    public void setup() {
+        List<String> words = BenchmarkWords.mixed(wordCount, wordLength, 42);
+        generator = new WordSearchGenerator(new SplittableRandom(7));
+        generator.layout(words, Math.max(gridSize, wordLength), null);
+        laidOut = generator.getGrid().copy();
+        target = laidOut.copy();
+        probe = BenchmarkWords.random(1, wordLength, 99).get(0);
+
+        SplittableRandom rand = new SplittableRandom(11);
+        points = new Point[PROBES];
+        directions = new Direction[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            directions[i] = DirectionWeights.ALL.pick(rand);
+            points[i] = generator.getPoint(probe, directions[i]);
+        } // end for
+    } // end setup
+
+    // post: path of probe word at the next probe placement has been checked
+    @Benchmark
+    public boolean checkPath() {
+        int i = next++ & (PROBES - 1);
+        return generator.checkPath(probe, points[i], 0, directions[i]);
+    } // end checkPath
+
+    // post: probe word has been written at the first probe placement,
+    // rewriting the same cells on every call
+    @Benchmark
+    public Grid placeWord() {
+        generator.placeWord(probe, points[0], 0, directions[0]);
+        return generator.getGrid();
+    } // end placeWord
+
+    // post: first cell matching a char of probe word has been found
+    @Benchmark
+    public MatchingPoint findFirstMatchingPoint() {
+        return generator.findFirstMatchingPoint(probe);
+    } // end findFirstMatchingPoint
+
+    // post: copy of laid out grid has been filled, the copy is a single
+    // array copy and is included in the measurement
+    @Benchmark
+    public Grid fillEmptySpaces() {
+        target.copyFrom(laidOut);
+        generator.fillEmptySpaces(target);
+        return target;
+    } // end fillEmptySpaces
+} // end PlacementBenchmark class
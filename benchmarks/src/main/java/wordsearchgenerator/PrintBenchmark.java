@@ -0,0 +1,73 @@
+// Word Search Generator
+// PrintBenchmark - rendering a puzzle to a stream
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// begin PrintBenchmark class - measures WordSearchGenerator.print and
+// PuzzleRenderer into outputs which discard what they are given, so only
+// formatting and stream overhead are counted
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PrintBenchmark {
+    @Param({"20", "100", "500"})
+    private int gridSize;
+
+    private WordSearchGenerator generator;
+    private char[][] puzzle;
+    private PrintStream output;
+    private Writer writer;
+    private PuzzleRenderer text;
+    private PuzzleRenderer json;
+
+    // post: filled puzzle of gridSize has been generated
+    @Setup
+    public void setup() {
+        generator = new WordSearchGenerator(new SplittableRandom(7));
+        generator.generate(BenchmarkWords.mixed(gridSize, 10, 42), gridSize, null);
+        puzzle = generator.getWordSearchPuzzle();
+        output = new PrintStream(OutputStream.nullOutputStream());
+        writer = Writer.nullWriter();
+        text = new PuzzleRenderer(PuzzleRenderer.Format.TEXT);
+        json = new PuzzleRenderer(PuzzleRenderer.Format.JSON);
+    } // end setup
+
+    // post: puzzle has been printed to the discarding stream
+    @Benchmark
+    public void print() {
+        generator.print(puzzle, output);
+    } // end print
+
+    // post: grid has been rendered as text and written in one call
+    @Benchmark
+    public void renderText() throws IOException {
+        text.writeGrid(generator.getGrid(), false, writer);
+    } // end renderText
+
+    // post: grid has been rendered as JSON and written in one call
+    @Benchmark
+    public void renderJson() throws IOException {
+        json.writeGrid(generator.getGrid(), false, writer);
+    } // end renderJson
+} // end PrintBenchmark class
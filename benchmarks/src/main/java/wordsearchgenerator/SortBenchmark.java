@@ -0,0 +1,54 @@
+// Word Search Generator
+// SortBenchmark - word list ordering
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// begin SortBenchmark class - measures WordSearchGenerator.sort on an
+// unsorted list, the list is copied first so every call sorts from the
+// same order
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SortBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    private int wordCount;
+
+    @Param({"5", "10"})
+    private int wordLength;
+
+    private List<String> words;
+    private WordSearchGenerator generator;
+
+    // post: unsorted word list has been prepared
+    @Setup
+    public void setup() {
+        words = BenchmarkWords.mixed(wordCount, wordLength, 42);
+        generator = new WordSearchGenerator();
+    } // end setup
+
+    // post: copy of word list has been sorted
+    @Benchmark
+    public List<String> sort() {
+        List<String> copy = new ArrayList<>(words);
+        generator.sort(copy);
+        return copy;
+    } // end sort
+} // end SortBenchmark class
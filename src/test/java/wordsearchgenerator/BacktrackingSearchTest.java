@@ -0,0 +1,123 @@
+// Word Search Generator
+// BacktrackingSearchTest - budget and layouts of the backtracking search
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+// begin BacktrackingSearchTest class - the search must stop close to its
+// time budget however large the grid, and its layouts must hold every
+// word it reports placed
+class BacktrackingSearchTest {
+    // time a generation may run past its budget - filling the grid is not
+    // held to it, and the first run also pays for compiling the search
+    private static final long SLACK_MILLIS = 1_000;
+
+    // post: count distinct random words of 3 to 12 uppercase letters,
+    // determined by seed, have been returned
+    static List<String> randomWords(int count, long seed) {
+        Random rand = new Random(seed);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < count) {
+            char[] chars = new char[3 + rand.nextInt(10)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ('A' + rand.nextInt(26));
+            } // end for
+            words.add(new String(chars));
+        } // end while
+        return new ArrayList<>(words);
+    } // end randomWords
+
+    // post: every placement of puzzle has been checked to read its word
+    // in the solution
+    static void assertPlacementsRead(Puzzle puzzle) {
+        Grid grid = puzzle.getGrid();
+        for (Placement placement : puzzle.getPlacements()) {
+            StringBuilder read = new StringBuilder();
+            for (int i = 0; i < placement.getLength(); i++) {
+                read.append(grid.get(placement.cell(i, grid.getWidth())));
+            } // end for
+            assertEquals(placement.getWord(), read.toString());
+        } // end for
+        assertEquals(puzzle.getWords().size() - puzzle.getFailedWords().size(),
+                puzzle.getPlacements().size());
+    } // end assertPlacementsRead
+
+    @Test
+    void stopsNearTimeBudgetOnLargeGrid() {
+        // more letters than cells, so the search can only end by running
+        // out of time or of layouts to try
+        List<String> words = randomWords(250, 1);
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL,
+                new SearchBudget(Long.MAX_VALUE, 200));
+        long start = System.nanoTime();
+        Puzzle puzzle = engine.generate(words, 40, new SplittableRandom(1));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < 200 + SLACK_MILLIS, "took " + millis + " ms");
+        assertFalse(puzzle.isComplete());
+        assertPlacementsRead(puzzle);
+    } // end stopsNearTimeBudgetOnLargeGrid
+
+    @Test
+    void stopsNearTimeBudgetWithManyWordsOnHugeGrid() {
+        // a bit for every placement of every word would take gigabytes, so
+        // only placements blocked are kept; filling a million cells is
+        // not held to the budget, hence the wider slack
+        List<String> words = randomWords(20_000, 5);
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL,
+                new SearchBudget(Long.MAX_VALUE, 200));
+        long start = System.nanoTime();
+        Puzzle puzzle = engine.generate(words, 1_000, new SplittableRandom(5));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < 200 + 4 * SLACK_MILLIS, "took " + millis + " ms");
+        assertPlacementsRead(puzzle);
+    } // end stopsNearTimeBudgetWithManyWordsOnHugeGrid
+
+    @Test
+    void stopsWhenInterrupted() {
+        List<String> words = randomWords(250, 2);
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL,
+                new SearchBudget(Long.MAX_VALUE, 60_000));
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        try {
+            engine.generate(words, 60, new SplittableRandom(2));
+        } finally {
+            Thread.interrupted();
+        } // end try/finally
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < SLACK_MILLIS, "took " + millis + " ms");
+    } // end stopsWhenInterrupted
+
+    @Test
+    void stepBudgetGivesSameLayoutForSeed() {
+        List<String> words = randomWords(40, 3);
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL,
+                new SearchBudget(2_000, 60_000));
+        Puzzle first = engine.generate(words, 20, new SplittableRandom(3));
+        Puzzle second = engine.generate(words, 20, new SplittableRandom(3));
+        assertTrue(Arrays.deepEquals(first.getSolution(), second.getSolution()));
+        assertEquals(first.getFailedWords(), second.getFailedWords());
+        assertPlacementsRead(first);
+    } // end stepBudgetGivesSameLayoutForSeed
+
+    @Test
+    void placesEveryWordWhenRoomEnough() {
+        List<String> words = randomWords(15, 4);
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL, SearchBudget.DEFAULT);
+        Puzzle puzzle = engine.generate(words, 15, new SplittableRandom(4));
+        assertTrue(puzzle.isComplete(), "failed " + puzzle.getFailedWords());
+        assertPlacementsRead(puzzle);
+    } // end placesEveryWordWhenRoomEnough
+} // end BacktrackingSearchTest class
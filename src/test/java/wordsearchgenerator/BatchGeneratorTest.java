@@ -0,0 +1,74 @@
+// Word Search Generator
+// BatchGeneratorTest - batches run from a manifest and options
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// begin BatchGeneratorTest class - sizes, formats and orders are read
+// the same whatever the default locale, and a budget selects the
+// backtracking search
+class BatchGeneratorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsLowerCaseNamesInTurkishLocale() throws Exception {
+        Path manifest = directory.resolve("manifest.txt");
+        Path output = directory.resolve("out.json");
+        // i upper cases to a dotted capital in Turkish
+        Files.writeString(manifest, "2 medium 5 cat dog bird\n", StandardCharsets.UTF_8);
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            BatchGenerator.run(new String[] {"--format", "json", "--order",
+                "rarest_letter_first", manifest.toString(), output.toString()});
+        } finally {
+            Locale.setDefault(locale);
+        } // end try/finally
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+    } // end readsLowerCaseNamesInTurkishLocale
+
+    @Test
+    void placesWordsByBacktrackingWithinBudget() throws Exception {
+        Path manifest = directory.resolve("manifest.txt");
+        Files.writeString(manifest, "2 small 3 cat dog bird fish horse mouse\n",
+                StandardCharsets.UTF_8);
+        SearchBudget budget = new SearchBudget(1_000_000, 60_000);
+        List<Puzzle> puzzles = new BatchGenerator(2, WordOrder.LENGTH_DESCENDING,
+                DirectionWeights.CLASSIC, GridFiller.DEFAULT, null,
+                GenerationMetrics.NONE, null, budget)
+                .generate(BatchGenerator.readManifest(manifest));
+        PuzzleEngine engine = new PuzzleEngine(Size.SMALL, budget);
+        List<String> words = List.of("CAT", "DOG", "BIRD", "FISH", "HORSE", "MOUSE");
+        for (int i = 0; i < puzzles.size(); i++) {
+            PuzzleCacheTest.assertSamePuzzle(engine.generate(words, 3 + i), puzzles.get(i));
+        } // end for
+
+        // the option reaches the same engine
+        Path output = directory.resolve("out.json");
+        BatchGenerator.run(new String[] {"--format", "json", "--budget", "1000000,60000",
+            manifest.toString(), output.toString()});
+        assertEquals(2, Files.readAllLines(output, StandardCharsets.UTF_8).size());
+    } // end placesWordsByBacktrackingWithinBudget
+
+    @Test
+    void generatesNothingForBadBudget() throws Exception {
+        Path manifest = directory.resolve("manifest.txt");
+        Path output = directory.resolve("out.json");
+        Files.writeString(manifest, "1 small 3 cat dog\n", StandardCharsets.UTF_8);
+        BatchGenerator.run(new String[] {"--budget", "0,100", manifest.toString(),
+            output.toString()});
+        assertTrue(Files.notExists(output));
+    } // end generatesNothingForBadBudget
+} // end BatchGeneratorTest class
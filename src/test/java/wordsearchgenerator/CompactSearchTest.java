@@ -0,0 +1,42 @@
+// Word Search Generator
+// CompactSearchTest - seeded searches for the smallest grid
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+// begin CompactSearchTest class - a seed gives the same puzzle every time,
+// and no two seeds and sizes share the random stream of an attempt
+class CompactSearchTest {
+    @Test
+    void seedGivesSamePuzzle() {
+        List<String> words = BacktrackingSearchTest.randomWords(12, 7);
+        CompactSearch search = new CompactSearch(new PuzzleEngine(Size.SMALL), 1);
+        Puzzle first = search.generate(words, 7);
+        Puzzle second = search.generate(words, 7);
+        assertTrue(first.isComplete(), "failed " + first.getFailedWords());
+        assertEquals(first.getDimensions(), second.getDimensions());
+        assertTrue(Arrays.deepEquals(first.getSolution(), second.getSolution()));
+    } // end seedGivesSamePuzzle
+
+    @Test
+    void neighbouringSeedsAndSizesHaveOwnStreams() {
+        // seed * 31 + size made seed s at size n + 31 equal seed s + 1 at n
+        assertNotEquals(CompactSearch.seedFor(1, 10 + 31), CompactSearch.seedFor(2, 10));
+        Set<Long> seeds = new HashSet<>();
+        for (long seed = 0; seed < 100; seed++) {
+            for (int size = 1; size <= 100; size++) {
+                seeds.add(CompactSearch.seedFor(seed, size));
+            } // end for
+        } // end for
+        assertEquals(100 * 100, seeds.size());
+    } // end neighbouringSeedsAndSizesHaveOwnStreams
+} // end CompactSearchTest class
@@ -0,0 +1,101 @@
+// Word Search Generator
+// GenerationServerTest - request limits and responses of the server
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// begin GenerationServerTest class - requests over the limits are turned
+// away before they are queued, and the server keeps serving after them
+class GenerationServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private GenerationServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new GenerationServer(0, 1, 8, 4, 0, DirectionWeights.CLASSIC,
+                GridFiller.DEFAULT);
+        server.start(0);
+    } // end start
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    } // end stop
+
+    // post: body has been posted to path and the response returned
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    } // end post
+
+    @Test
+    void rejectsLongWord() throws Exception {
+        HttpResponse<String> response = post("/generate?seed=1", "CAT " + "A".repeat(51));
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("at most 50 letters"), response.body());
+        assertEquals(200, post("/generate?seed=1", "CAT " + "A".repeat(50)).statusCode());
+    } // end rejectsLongWord
+
+    @Test
+    void rejectsTooManyWords() throws Exception {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < 1_001; i++) {
+            words.append("WORD").append((char) ('A' + i % 26))
+                    .append((char) ('A' + i / 26 % 26)).append(' ');
+        } // end for
+        assertEquals(400, post("/generate", words.toString()).statusCode());
+    } // end rejectsTooManyWords
+
+    @Test
+    void rejectsLongWordToSolve() throws Exception {
+        HttpResponse<String> response = post("/solve?words=" + "A".repeat(51), "CAT\n");
+        assertEquals(400, response.statusCode());
+    } // end rejectsLongWordToSolve
+
+    @Test
+    void sendsJsonAsJson() throws Exception {
+        HttpResponse<String> response = post("/generate?seed=2&format=json", "CAT DOG BIRD");
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json; charset=utf-8",
+                response.headers().firstValue("Content-Type").orElse(""));
+        assertTrue(response.body().startsWith("{"), response.body());
+        response = post("/generate?seed=2", "CAT DOG BIRD");
+        assertEquals("text/plain; charset=utf-8",
+                response.headers().firstValue("Content-Type").orElse(""));
+    } // end sendsJsonAsJson
+
+    @Test
+    void solvesShapedPuzzleAsPrinted() throws Exception {
+        Puzzle puzzle = PuzzleCacheTest.engine(LetterDistribution.UNIFORM)
+                .generate(List.of("CAT", "DOG", "BIRD"), PuzzleCacheTest.DIAMOND, 3);
+        String grid = new PuzzleRenderer(PuzzleRenderer.Format.TEXT)
+                .render(puzzle, false).toString();
+        HttpResponse<String> response = post("/solve?words=CAT,DOG,BIRD", grid);
+        assertEquals(200, response.statusCode(), response.body());
+        for (Placement placement : puzzle.getPlacements()) {
+            assertTrue(response.body().contains(placement.toString()), response.body());
+        } // end for
+    } // end solvesShapedPuzzleAsPrinted
+
+    @Test
+    void keepsServingAfterBadRequests() throws Exception {
+        assertEquals(400, post("/generate", "").statusCode());
+        assertEquals(400, post("/generate?size=HUGE", "CAT").statusCode());
+        assertEquals(400, post("/solve?words=CAT", "").statusCode());
+        assertEquals(200, post("/generate?seed=3", "CAT DOG").statusCode());
+    } // end keepsServingAfterBadRequests
+} // end GenerationServerTest class
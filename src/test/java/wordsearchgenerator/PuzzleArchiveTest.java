@@ -0,0 +1,136 @@
+// Word Search Generator
+// PuzzleArchiveTest - puzzles read back from a mapped archive
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// begin PuzzleArchiveTest class - every puzzle written to an archive must
+// read back equal to the one written, holes, failed words and alphabet
+// included
+class PuzzleArchiveTest {
+    @TempDir
+    Path directory;
+
+    // post: puzzles have been written to a new archive of alphabet, read
+    // back and checked to equal those written
+    private void assertRoundTrip(Alphabet alphabet, List<Puzzle> puzzles)
+            throws IOException {
+        Path file = directory.resolve("puzzles.wsa");
+        try (PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file, false, alphabet)) {
+            writer.appendAll(puzzles);
+        } // end try
+        try (PuzzleArchive archive = PuzzleArchive.open(file)) {
+            assertSame(alphabet, archive.getAlphabet());
+            assertEquals(puzzles.size(), archive.size());
+            for (int i = 0; i < puzzles.size(); i++) {
+                Puzzle read = archive.get(i).toPuzzle();
+                PuzzleCacheTest.assertSamePuzzle(puzzles.get(i), read);
+                BacktrackingSearchTest.assertPlacementsRead(read);
+            } // end for
+        } // end try
+    } // end assertRoundTrip
+
+    @Test
+    void readsBackShapedGreekPuzzles() throws Exception {
+        PuzzleEngine engine = PuzzleCacheTest.engine(LetterDistribution.GREEK);
+        List<Puzzle> puzzles = new ArrayList<>();
+        for (long seed = 1; seed <= 3; seed++) {
+            puzzles.add(engine.generate(PuzzleCacheTest.GREEK_WORDS,
+                    PuzzleCacheTest.DIAMOND, seed));
+        } // end for
+        assertRoundTrip(Alphabet.GREEK, puzzles);
+
+        // the mask is drawn again by the holes stored
+        try (PuzzleArchive archive = PuzzleArchive.open(directory.resolve("puzzles.wsa"))) {
+            assertEquals(Grid.HOLE, archive.get(0).getChar(0, 0));
+            assertTrue(archive.get(0).getChar(4, 4) != Grid.HOLE);
+            GridMask mask = archive.get(0).toPuzzle().grid().getMask();
+            assertNotNull(mask);
+            // equal shapes have equal fingerprints
+            assertEquals(PuzzleCacheTest.DIAMOND.toString(), mask.toString());
+        } // end try
+    } // end readsBackShapedGreekPuzzles
+
+    @Test
+    void readsBackRussianPuzzleWithFailedWord() throws Exception {
+        // LANDMARK in Russian, longer than any line of the diamond, must fail
+        List<String> words = new ArrayList<>(PuzzleCacheTest.RUSSIAN_WORDS);
+        words.add("\u0414\u041E\u0421\u0422\u041E\u041F\u0420\u0418\u041C\u0415"
+                + "\u0427\u0410\u0422\u0415\u041B\u042C\u041D\u041E\u0421\u0422\u042C");
+        PuzzleEngine engine = PuzzleCacheTest.engine(LetterDistribution.RUSSIAN);
+        Puzzle shaped = engine.generate(words, PuzzleCacheTest.DIAMOND, 4);
+        assertEquals(List.of(words.get(words.size() - 1)), shaped.getFailedWords());
+        Puzzle square = engine.generate(PuzzleCacheTest.RUSSIAN_WORDS, 5);
+        assertRoundTrip(Alphabet.RUSSIAN, List.of(shaped, square));
+
+        try (PuzzleArchive archive = PuzzleArchive.open(directory.resolve("puzzles.wsa"))) {
+            assertNotNull(archive.get(0).toPuzzle().grid().getMask());
+            assertNull(archive.get(1).toPuzzle().grid().getMask());
+            PuzzleArchive.ArchivedPuzzle read = archive.get(0);
+            int failed = read.toPuzzle().getWords().indexOf(words.get(words.size() - 1));
+            assertNull(read.getPlacement(failed));
+        } // end try
+    } // end readsBackRussianPuzzleWithFailedWord
+
+    @Test
+    void refusesToAppendOtherAlphabet() throws Exception {
+        Path file = directory.resolve("puzzles.wsa");
+        Puzzle greek = PuzzleCacheTest.engine(LetterDistribution.GREEK)
+                .generate(PuzzleCacheTest.GREEK_WORDS, 6);
+        try (PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file, false, Alphabet.GREEK)) {
+            writer.append(greek);
+        } // end try
+        assertThrows(IOException.class,
+                () -> new PuzzleArchiveWriter(file, true, Alphabet.RUSSIAN));
+
+        // appending in the same alphabet keeps the puzzles already there
+        try (PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file, true, Alphabet.GREEK)) {
+            writer.append(greek);
+            assertEquals(2, writer.size());
+        } // end try
+        try (PuzzleArchive archive = PuzzleArchive.open(file)) {
+            assertEquals(2, archive.size());
+            PuzzleCacheTest.assertSamePuzzle(greek, archive.get(0).toPuzzle());
+            PuzzleCacheTest.assertSamePuzzle(greek, archive.get(1).toPuzzle());
+        } // end try
+    } // end refusesToAppendOtherAlphabet
+
+    @Test
+    void keepsArchiveWhenAppendIsNotClosed() throws Exception {
+        Path file = directory.resolve("puzzles.wsa");
+        PuzzleEngine engine = PuzzleCacheTest.engine(LetterDistribution.UNIFORM);
+        List<Puzzle> puzzles = List.of(engine.generate(List.of("CAT", "DOG"), 7),
+                engine.generate(List.of("BIRD", "FISH"), 8));
+        try (PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file)) {
+            writer.appendAll(puzzles);
+        } // end try
+
+        // as if the process were killed before the writer was closed
+        PuzzleArchiveWriter writer = new PuzzleArchiveWriter(file, true);
+        writer.append(engine.generate(List.of("HORSE"), 9));
+        try (PuzzleArchive archive = PuzzleArchive.open(file)) {
+            assertEquals(puzzles.size(), archive.size());
+            for (int i = 0; i < puzzles.size(); i++) {
+                PuzzleCacheTest.assertSamePuzzle(puzzles.get(i), archive.get(i).toPuzzle());
+            } // end for
+        } // end try
+
+        writer.close();
+        try (PuzzleArchive archive = PuzzleArchive.open(file)) {
+            assertEquals(puzzles.size() + 1, archive.size());
+        } // end try
+    } // end keepsArchiveWhenAppendIsNotClosed
+} // end PuzzleArchiveTest class
@@ -0,0 +1,99 @@
+// Word Search Generator
+// PuzzleCacheTest - puzzles read back from a cache directory
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// begin PuzzleCacheTest class - a puzzle read from disk by a new cache
+// must equal the one stored, shape and alphabet included
+class PuzzleCacheTest {
+    // ALPHA, BETA, GAMMA, DELTA and OMEGA in Greek capitals
+    static final List<String> GREEK_WORDS = List.of("\u0391\u039B\u03A6\u0391",
+            "\u0392\u0397\u03A4\u0391", "\u0393\u0391\u039C\u039C\u0391",
+            "\u0394\u0395\u039B\u03A4\u0391", "\u03A9\u039C\u0395\u0393\u0391");
+    // CAT, DOG and HOUSE in Russian, IO included
+    static final List<String> RUSSIAN_WORDS = List.of("\u041A\u041E\u0422",
+            "\u041F\u0401\u0421", "\u0414\u041E\u041C");
+    // diamond of 9 x 9
+    static final GridMask DIAMOND = GridMask.parse(List.of(
+            "....#....", "...###...", "..#####..", ".#######.", "#########",
+            ".#######.", "..#####..", "...###...", "....#...."));
+
+    @TempDir
+    Path directory;
+
+    // post: engine filling grids with letters has been returned
+    static PuzzleEngine engine(LetterDistribution letters) {
+        return new PuzzleEngine(Size.SMALL, null, WordOrder.LENGTH_DESCENDING,
+                DirectionWeights.CLASSIC, new GridFiller(letters, List.of()));
+    } // end engine
+
+    // post: read has been checked to equal stored in every part
+    static void assertSamePuzzle(Puzzle stored, Puzzle read) {
+        assertTrue(Arrays.deepEquals(stored.getPuzzle(), read.getPuzzle()));
+        assertTrue(Arrays.deepEquals(stored.getSolution(), read.getSolution()));
+        assertEquals(stored.getWords(), read.getWords());
+        assertEquals(stored.getFailedWords(), read.getFailedWords());
+        assertEquals(stored.getPlacements(), read.getPlacements());
+        assertSame(stored.grid().getAlphabet(), read.grid().getAlphabet());
+    } // end assertSamePuzzle
+
+    @Test
+    void readsBackShapedGreekPuzzle() throws Exception {
+        PuzzleEngine engine = engine(LetterDistribution.GREEK);
+        PuzzleKey key = engine.key(GREEK_WORDS, DIAMOND, 5);
+        Puzzle stored = new PuzzleCache(4, directory).get(key,
+                () -> engine.generate(GREEK_WORDS, DIAMOND, 5));
+        assertTrue(stored.getPlacements().size() > 0);
+
+        PuzzleCache cache = new PuzzleCache(4, directory);
+        Puzzle read = cache.get(key);
+        assertNotNull(read);
+        assertEquals(1, cache.getHits());
+        assertSamePuzzle(stored, read);
+        assertSame(Alphabet.GREEK, read.grid().getAlphabet());
+        GridMask mask = read.grid().getMask();
+        assertNotNull(mask);
+        // equal shapes have equal fingerprints
+        assertEquals(DIAMOND.toString(), mask.toString());
+    } // end readsBackShapedGreekPuzzle
+
+    @Test
+    void readsBackSquareRussianPuzzle() throws Exception {
+        PuzzleEngine engine = engine(LetterDistribution.RUSSIAN);
+        Puzzle stored = new PuzzleCache(4, directory).generate(engine, RUSSIAN_WORDS, 7);
+
+        PuzzleCache cache = new PuzzleCache(4, directory);
+        Puzzle read = cache.generate(engine, RUSSIAN_WORDS, 7);
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertSamePuzzle(stored, read);
+        assertSame(Alphabet.RUSSIAN, read.grid().getAlphabet());
+        assertNull(read.grid().getMask());
+    } // end readsBackSquareRussianPuzzle
+
+    @Test
+    void treatsOlderFileAsMissing() throws Exception {
+        PuzzleEngine engine = engine(LetterDistribution.UNIFORM);
+        PuzzleKey key = engine.key(List.of("CAT", "DOG"), 1);
+        Files.writeString(directory.resolve(key + ".puzzle"),
+                "wordsearch-puzzle 2\n3 1\nCAT\nCAT\n\nCAT 0 0 EAST\n",
+                StandardCharsets.UTF_8);
+        PuzzleCache cache = new PuzzleCache(4, directory);
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getMisses());
+    } // end treatsOlderFileAsMissing
+} // end PuzzleCacheTest class
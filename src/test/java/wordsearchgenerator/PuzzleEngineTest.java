@@ -0,0 +1,88 @@
+// Word Search Generator
+// PuzzleEngineTest - heuristic placement of the engine
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+// begin PuzzleEngineTest class - the heuristic places every word it has
+// room for and stops between words once its thread is interrupted, and
+// either engine reports every word to its metrics
+class PuzzleEngineTest {
+    @Test
+    void heuristicPlacesWordsWithRoom() {
+        List<String> words = BacktrackingSearchTest.randomWords(10, 5);
+        Puzzle puzzle = new PuzzleEngine(Size.LARGE).generate(words, 5);
+        assertTrue(puzzle.isComplete(), "failed " + puzzle.getFailedWords());
+        BacktrackingSearchTest.assertPlacementsRead(puzzle);
+    } // end heuristicPlacesWordsWithRoom
+
+    @Test
+    void heuristicStopsWhenInterrupted() {
+        List<String> words = BacktrackingSearchTest.randomWords(10, 5);
+        Puzzle puzzle;
+        Thread.currentThread().interrupt();
+        try {
+            puzzle = new PuzzleEngine(Size.LARGE).generate(words, 5);
+        } finally {
+            Thread.interrupted();
+        } // end try/finally
+        // the first word is placed before the words are looped over
+        assertEquals(words.size() - 1, puzzle.getFailedWords().size());
+        assertEquals(1, puzzle.getPlacements().size());
+        BacktrackingSearchTest.assertPlacementsRead(puzzle);
+    } // end heuristicStopsWhenInterrupted
+
+    @Test
+    void sizesGridByWordsAsPlaced() {
+        // E and a combining acute accent become one letter E
+        List<String> words = List.of("cafe\u0301", "tea");
+        assertEquals(4, WordSearchGenerator.longestLength(words, Alphabet.LATIN));
+        Puzzle puzzle = new PuzzleEngine(Size.SMALL).generate(words, 7);
+        assertEquals(Size.SMALL.getSize() + 4, puzzle.getDimensions());
+    } // end sizesGridByWordsAsPlaced
+
+    // post: recorder has been checked to count every word of puzzle, the
+    // first one aside if it was placed by the heuristic
+    private static void assertCounted(MetricsRecorder recorder, Puzzle puzzle,
+                                      int unreported) {
+        assertEquals(puzzle.getFailedWords().size(), recorder.getFailedWords());
+        assertEquals(puzzle.getPlacements().size() - unreported,
+                recorder.getWordsCrossed() + recorder.getWordsPlacedRandomly());
+        assertEquals(1, recorder.getPuzzles());
+    } // end assertCounted
+
+    @Test
+    void backtrackingReportsEveryWord() {
+        // more letters than cells, so some words fail
+        List<String> words = BacktrackingSearchTest.randomWords(60, 6);
+        MetricsRecorder recorder = new MetricsRecorder();
+        Puzzle puzzle = new PuzzleEngine(Size.SMALL, new SearchBudget(2_000, 60_000))
+                .withMetrics(recorder).generate(words, 15, new SplittableRandom(6));
+        assertTrue(puzzle.getFailedWords().size() > 0);
+        assertCounted(recorder, puzzle, 0);
+        assertTrue(recorder.getPathChecks() > recorder.getPathRejections());
+        assertTrue(recorder.getPathRejections() > 0);
+    } // end backtrackingReportsEveryWord
+
+    @Test
+    void heuristicReportsWordsSkippedWhenInterrupted() {
+        List<String> words = BacktrackingSearchTest.randomWords(10, 5);
+        MetricsRecorder recorder = new MetricsRecorder();
+        Puzzle puzzle;
+        Thread.currentThread().interrupt();
+        try {
+            puzzle = new PuzzleEngine(Size.LARGE).withMetrics(recorder).generate(words, 5);
+        } finally {
+            Thread.interrupted();
+        } // end try/finally
+        assertCounted(recorder, puzzle, 1);
+        // words skipped were never tried at random
+        assertEquals(0, recorder.getMaxRandomAttempts());
+    } // end heuristicReportsWordsSkippedWhenInterrupted
+} // end PuzzleEngineTest class
@@ -0,0 +1,75 @@
+// Word Search Generator
+// PuzzleSolverTest - grids read back from rendered puzzles and solved
+
+package wordsearchgenerator; // part of wordsearchgenerator package
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// begin PuzzleSolverTest class - a puzzle printed in TEXT or CSV, shaped
+// ones included, must read back cell for cell and have every placed word
+// found where it was placed
+class PuzzleSolverTest {
+    private static final List<String> WORDS = List.of("CAT", "DOG", "BIRD", "FISH",
+            "HORSE");
+
+    // post: shaped puzzle has been rendered in format, read back, checked
+    // to match and solved for every placed word
+    private static void assertSolvesRendered(PuzzleRenderer.Format format,
+                                             boolean trimmed) throws Exception {
+        Puzzle puzzle = PuzzleCacheTest.engine(LetterDistribution.UNIFORM)
+                .generate(WORDS, PuzzleCacheTest.DIAMOND, 11);
+        String text = new PuzzleRenderer(format).render(puzzle, false).toString();
+        if (trimmed) {
+            // as an editor stripping trailing blanks would leave it
+            text = text.replaceAll("(?m)[ \\t]+$", "");
+        } // end if
+        Grid grid = PuzzleSolver.readGrid(new BufferedReader(new StringReader(text)),
+                "rendered puzzle");
+        assertEquals(puzzle.grid().getWidth(), grid.getWidth());
+        assertEquals(puzzle.grid().getHeight(), grid.getHeight());
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                assertEquals(puzzle.grid().get(x, y), grid.get(x, y), "cell " + x + ", " + y);
+            } // end for
+        } // end for
+
+        List<PuzzleSolver.Occurrence> found = new PuzzleSolver(WORDS).solve(grid);
+        for (Placement placement : puzzle.getPlacements()) {
+            assertTrue(found.contains(new PuzzleSolver.Occurrence(placement.getWord(),
+                    placement.getX(), placement.getY(), placement.getDirection())),
+                    placement + " not in " + found);
+        } // end for
+    } // end assertSolvesRendered
+
+    @Test
+    void solvesShapedPuzzleRenderedAsText() throws Exception {
+        assertSolvesRendered(PuzzleRenderer.Format.TEXT, false);
+    } // end solvesShapedPuzzleRenderedAsText
+
+    @Test
+    void solvesShapedPuzzleRenderedAsTrimmedText() throws Exception {
+        assertSolvesRendered(PuzzleRenderer.Format.TEXT, true);
+    } // end solvesShapedPuzzleRenderedAsTrimmedText
+
+    @Test
+    void solvesShapedPuzzleRenderedAsCsv() throws Exception {
+        assertSolvesRendered(PuzzleRenderer.Format.CSV, false);
+    } // end solvesShapedPuzzleRenderedAsCsv
+
+    @Test
+    void readsPlainLettersIgnoringBlanks() throws Exception {
+        Grid grid = PuzzleSolver.readGrid(new BufferedReader(new StringReader(
+                "\nc a t\nx o y\nz q g\n\nrest")), "letters");
+        assertEquals(3, grid.getWidth());
+        assertEquals(3, grid.getHeight());
+        List<PuzzleSolver.Occurrence> found = new PuzzleSolver(List.of("CAT", "COG"))
+                .solve(grid);
+        assertEquals(2, found.size(), found.toString());
+    } // end readsPlainLettersIgnoringBlanks
+} // end PuzzleSolverTest class